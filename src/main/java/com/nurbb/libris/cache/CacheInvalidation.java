@@ -0,0 +1,8 @@
+package com.nurbb.libris.cache;
+
+/**
+ * Tells the other nodes to drop a near-cache entry, or the whole near-cache when key is null.
+ */
+
+public record CacheInvalidation(String origin, String cache, String key) {
+}
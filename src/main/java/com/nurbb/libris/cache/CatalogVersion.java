@@ -0,0 +1,203 @@
+package com.nurbb.libris.cache;
+
+import com.nurbb.libris.model.entity.Author;
+import com.nurbb.libris.model.entity.Book;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.NativeWebRequest;
+
+import java.time.Clock;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Version of the book/author catalogue, used as the validator for conditional GETs on the catalogue endpoints.
+ * Every committed change to books, authors or stock counts moves it forward, so an unchanged ETag means the
+ * client's copy is still current and the request can be answered with 304 before any query runs.
+ * <p>
+ * The caches holding catalogue responses are evicted in the same step, just before the version moves, and
+ * are keyed by {@link #etag()}. A load that started before the change stores its result under the old
+ * version, so a new ETag is never paired with a body cached before the change.
+ * <p>
+ * The counter lives in memory and starts from a per-process epoch, so a restart never reuses an old ETag.
+ * When a shared cache tier is configured, changes are broadcast on its invalidation channel so other nodes
+ * move their own version forward as well. They also drop Book and Author from their Hibernate second-level
+ * cache, which is node-local and would otherwise keep serving the old stock counts under the new version.
+ * Without a shared tier a node never hears of changes made elsewhere, so validators are only sent when
+ * {@code libris.catalog-version.single-node} declares that there is just one node.
+ */
+
+@Slf4j
+@Component
+public class CatalogVersion {
+
+    static final String INVALIDATION_NAME = "catalogVersion";
+    static final CacheControl CACHE_CONTROL = CacheControl.noCache().cachePrivate();
+    static final List<String> CATALOGUE_CACHES = List.of("bookList", "authorList", "authorById");
+
+    private record State(long version, long lastModified) {
+    }
+
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+    private final String origin = UUID.randomUUID().toString();
+    private final AtomicReference<State> state;
+    private final RemoteCacheTier remote;
+    private final boolean validators;
+    private final ObjectProvider<CacheManager> cacheManager;
+    private final ObjectProvider<EntityManagerFactory> entityManagerFactory;
+    private final Clock clock;
+
+    @Autowired
+    public CatalogVersion(ObjectProvider<RemoteCacheTier> remoteCacheTier, ObjectProvider<CacheManager> cacheManager,
+                          ObjectProvider<EntityManagerFactory> entityManagerFactory,
+                          @Value("${libris.catalog-version.single-node:false}") boolean singleNode) {
+        this(remoteCacheTier.getIfAvailable(), cacheManager, entityManagerFactory, singleNode, Clock.systemUTC());
+    }
+
+    CatalogVersion(RemoteCacheTier remote, ObjectProvider<CacheManager> cacheManager,
+                   ObjectProvider<EntityManagerFactory> entityManagerFactory, boolean singleNode, Clock clock) {
+        this.remote = remote;
+        this.validators = remote != null || singleNode;
+        this.cacheManager = cacheManager;
+        this.entityManagerFactory = entityManagerFactory;
+        this.clock = clock;
+        this.state = new AtomicReference<>(new State(0, clock.millis()));
+        if (remote != null) {
+            remote.subscribe(invalidation -> {
+                if (INVALIDATION_NAME.equals(invalidation.cache()) && !origin.equals(invalidation.origin())) {
+                    evictCatalogueEntities();
+                    evictCatalogueCaches();
+                    advance();
+                }
+            });
+        }
+    }
+
+    public String etag() {
+        return etag(state.get());
+    }
+
+    public long lastModified() {
+        return state.get().lastModified();
+    }
+
+    /**
+     * Sets ETag and Last-Modified on the response and returns true when the request's validators still match,
+     * in which case the response is already a 304. The response may be stored by the client but must be
+     * revalidated on every use, in place of the default no-store that Spring Security adds.
+     * Always false, with no headers set, when this node cannot see changes made on other nodes.
+     */
+
+    public boolean checkNotModified(NativeWebRequest request) {
+        if (!validators) {
+            return false;
+        }
+        HttpServletResponse response = request.getNativeResponse(HttpServletResponse.class);
+        if (response != null) {
+            response.setHeader(HttpHeaders.CACHE_CONTROL, CACHE_CONTROL.getHeaderValue());
+            // JSON and CBOR share the (weak) validator, so caches must keep them apart by Accept
+            response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+        }
+        State current = state.get();
+        return request.checkNotModified(etag(current), current.lastModified());
+    }
+
+    /**
+     * Evicts the catalogue caches and moves the version forward once the current transaction commits
+     * (immediately outside a transaction). Evicting before commit would let a concurrent reader refill the
+     * caches with the old rows, which would then be served under the new version.
+     */
+
+    public void changed() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    publish();
+                }
+            });
+        } else {
+            publish();
+        }
+    }
+
+    private void publish() {
+        evictCatalogueCaches();
+        advance();
+        if (remote != null) {
+            try {
+                remote.publish(new CacheInvalidation(origin, INVALIDATION_NAME, null));
+            } catch (RuntimeException ex) {
+                log.warn("Could not broadcast catalogue change: {}", ex.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Local copies only. Every other node runs this as well when it hears of the version change, so there is no
+     * shared-tier scan or second broadcast ({@link TwoLevelCache#invalidate()}). The catalogue caches are keyed by
+     * a per-node version and are therefore kept out of libris.cache.remote.caches.
+     */
+
+    private void evictCatalogueCaches() {
+        CacheManager manager = cacheManager != null ? cacheManager.getIfAvailable() : null;
+        if (manager == null) {
+            return;
+        }
+        for (String name : CATALOGUE_CACHES) {
+            Cache cache = manager.getCache(name);
+            if (cache != null) {
+                cache.invalidate();
+            }
+        }
+    }
+
+    /**
+     * Local changes keep this node's second-level cache current through Hibernate itself; a change made on
+     * another node is only known from the broadcast, so the entity regions are dropped here.
+     */
+
+    private void evictCatalogueEntities() {
+        EntityManagerFactory factory = entityManagerFactory != null ? entityManagerFactory.getIfAvailable() : null;
+        if (factory == null) {
+            return;
+        }
+        org.hibernate.Cache cache = factory.getCache().unwrap(org.hibernate.Cache.class);
+        cache.evictEntityData(Book.class);
+        cache.evictNaturalIdData(Book.class);
+        cache.evictEntityData(Author.class);
+        cache.evictNaturalIdData(Author.class);
+    }
+
+    /**
+     * Last-Modified is sent with second precision, so every change moves it to a later whole second than the
+     * previous one. Otherwise a second change within the same second would still match If-Modified-Since.
+     */
+
+    private void advance() {
+        long nextSecond = (clock.millis() / 1000 + 1) * 1000;
+        state.updateAndGet(current -> new State(current.version() + 1,
+                Math.max(nextSecond, (current.lastModified() / 1000 + 1) * 1000)));
+    }
+
+    /**
+     * Weak, because JSON, CBOR and their gzip copies are different byte sequences of the same catalogue state
+     * and all carry this one validator (RFC 9110 §8.8.3). If-None-Match uses weak comparison, so 304s still work.
+     */
+
+    private String etag(State current) {
+        return "W/\"" + epoch + "-" + current.version() + "\"";
+    }
+}
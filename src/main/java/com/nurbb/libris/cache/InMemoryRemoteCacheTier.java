@@ -0,0 +1,71 @@
+package com.nurbb.libris.cache;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * Single-JVM stand-in for the Redis tier, for local runs and tests: several cache managers sharing one
+ * instance behave like nodes sharing one Redis. Invalidations are delivered synchronously.
+ */
+
+public class InMemoryRemoteCacheTier implements RemoteCacheTier {
+
+    private record Entry(String value, Instant expiresAt) {
+    }
+
+    private final ConcurrentMap<String, Entry> entries = new ConcurrentHashMap<>();
+    private final List<Consumer<CacheInvalidation>> listeners = new CopyOnWriteArrayList<>();
+    private final Clock clock;
+
+    public InMemoryRemoteCacheTier() {
+        this(Clock.systemUTC());
+    }
+
+    InMemoryRemoteCacheTier(Clock clock) {
+        this.clock = clock;
+    }
+
+    @Override
+    public String get(String key) {
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (!clock.instant().isBefore(entry.expiresAt())) {
+            entries.remove(key, entry);
+            return null;
+        }
+        return entry.value();
+    }
+
+    @Override
+    public void put(String key, String value, Duration ttl) {
+        entries.put(key, new Entry(value, clock.instant().plus(ttl)));
+    }
+
+    @Override
+    public void delete(String key) {
+        entries.remove(key);
+    }
+
+    @Override
+    public void deleteByPrefix(String prefix) {
+        entries.keySet().removeIf(key -> key.startsWith(prefix));
+    }
+
+    @Override
+    public void publish(CacheInvalidation invalidation) {
+        listeners.forEach(listener -> listener.accept(invalidation));
+    }
+
+    @Override
+    public void subscribe(Consumer<CacheInvalidation> listener) {
+        listeners.add(listener);
+    }
+}
@@ -0,0 +1,91 @@
+package com.nurbb.libris.cache;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Redis tier: string values with a TTL, SCAN-based prefix deletes, and invalidations over pub/sub.
+ */
+
+@Slf4j
+public class RedisRemoteCacheTier implements RemoteCacheTier {
+
+    private static final int DELETE_BATCH = 500;
+
+    private final StringRedisTemplate redisTemplate;
+    private final RedisMessageListenerContainer listenerContainer;
+    private final ObjectMapper objectMapper;
+    private final ChannelTopic channel;
+
+    public RedisRemoteCacheTier(StringRedisTemplate redisTemplate, RedisMessageListenerContainer listenerContainer,
+                                ObjectMapper objectMapper, String channel) {
+        this.redisTemplate = redisTemplate;
+        this.listenerContainer = listenerContainer;
+        this.objectMapper = objectMapper;
+        this.channel = new ChannelTopic(channel);
+    }
+
+    @Override
+    public String get(String key) {
+        return redisTemplate.opsForValue().get(key);
+    }
+
+    @Override
+    public void put(String key, String value, Duration ttl) {
+        redisTemplate.opsForValue().set(key, value, ttl);
+    }
+
+    @Override
+    public void delete(String key) {
+        redisTemplate.delete(key);
+    }
+
+    @Override
+    public void deleteByPrefix(String prefix) {
+        List<String> batch = new ArrayList<>(DELETE_BATCH);
+        try (Cursor<String> keys = redisTemplate.scan(ScanOptions.scanOptions().match(prefix + "*").count(DELETE_BATCH).build())) {
+            while (keys.hasNext()) {
+                batch.add(keys.next());
+                if (batch.size() == DELETE_BATCH) {
+                    redisTemplate.delete(batch);
+                    batch.clear();
+                }
+            }
+        }
+        if (!batch.isEmpty()) {
+            redisTemplate.delete(batch);
+        }
+    }
+
+    @Override
+    public void publish(CacheInvalidation invalidation) {
+        try {
+            redisTemplate.convertAndSend(channel.getTopic(), objectMapper.writeValueAsString(invalidation));
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Cannot serialize cache invalidation", ex);
+        }
+    }
+
+    @Override
+    public void subscribe(Consumer<CacheInvalidation> listener) {
+        listenerContainer.addMessageListener((message, pattern) -> {
+            try {
+                listener.accept(objectMapper.readValue(message.getBody(), CacheInvalidation.class));
+            } catch (IOException ex) {
+                log.warn("Ignoring malformed cache invalidation on {}", channel.getTopic(), ex);
+            }
+        }, channel);
+    }
+}
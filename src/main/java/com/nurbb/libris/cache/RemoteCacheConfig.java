@@ -0,0 +1,49 @@
+package com.nurbb.libris.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+/**
+ * Shared tier behind the near-caches, selected with libris.cache.remote.type: redis (spring.data.redis.*),
+ * in-memory (a single-JVM stand-in) or none (default; every cache stays local).
+ */
+
+@Configuration
+public class RemoteCacheConfig {
+
+    @Configuration
+    @ConditionalOnProperty(prefix = "libris.cache.remote", name = "type", havingValue = "redis")
+    static class Redis {
+
+        @Bean
+        public RedisMessageListenerContainer cacheInvalidationListenerContainer(RedisConnectionFactory connectionFactory) {
+            RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+            container.setConnectionFactory(connectionFactory);
+            return container;
+        }
+
+        @Bean
+        public RemoteCacheTier remoteCacheTier(StringRedisTemplate redisTemplate,
+                                               RedisMessageListenerContainer cacheInvalidationListenerContainer,
+                                               ObjectMapper objectMapper,
+                                               @Value("${libris.cache.remote.channel:libris:cache:invalidation}") String channel) {
+            return new RedisRemoteCacheTier(redisTemplate, cacheInvalidationListenerContainer, objectMapper, channel);
+        }
+    }
+
+    @Configuration
+    @ConditionalOnProperty(prefix = "libris.cache.remote", name = "type", havingValue = "in-memory")
+    static class InMemory {
+
+        @Bean
+        public RemoteCacheTier remoteCacheTier() {
+            return new InMemoryRemoteCacheTier();
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.nurbb.libris.cache;
+
+import java.time.Duration;
+import java.util.function.Consumer;
+
+/**
+ * Shared cache store behind the per-node near-caches, plus the channel the nodes use to tell each
+ * other which local entries to drop. Values are opaque serialized strings.
+ */
+
+public interface RemoteCacheTier {
+
+    String get(String key);
+
+    void put(String key, String value, Duration ttl);
+
+    void delete(String key);
+
+    void deleteByPrefix(String prefix);
+
+    void publish(CacheInvalidation invalidation);
+
+    void subscribe(Consumer<CacheInvalidation> listener);
+}
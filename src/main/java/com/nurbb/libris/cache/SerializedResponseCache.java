@@ -0,0 +1,214 @@
+package com.nurbb.libris.cache;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.nurbb.libris.config.ContentNegotiationConfig;
+import com.nurbb.libris.datasource.PrimaryRead;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.HttpMediaTypeNotAcceptableException;
+import org.springframework.web.accept.ContentNegotiationManager;
+import org.springframework.web.context.request.NativeWebRequest;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Encoded bodies (JSON or CBOR) of hot catalogue responses, kept per {@link CatalogVersion}: as long as the
+ * catalogue does not change, every request gets the same bytes (and the same gzip copy) instead of serializing
+ * and compressing the whole list again. One entry per name and media type; the first encode for a new
+ * catalogue version drops every entry of older versions, and the encoded bytes are bounded in total.
+ */
+
+@Component
+public class SerializedResponseCache {
+
+    private final Cache<String, SerializedResponse> entries;
+    private final ConcurrentMap<String, CompletableFuture<SerializedResponse>> loading = new ConcurrentHashMap<>();
+    private final CatalogVersion catalogVersion;
+    private final ContentNegotiationManager contentNegotiationManager;
+    private final Map<MediaType, ObjectMapper> mappers = new LinkedHashMap<>();
+    private final long gzipMinSize;
+
+    public SerializedResponseCache(CatalogVersion catalogVersion,
+                                   ObjectMapper objectMapper,
+                                   Jackson2ObjectMapperBuilder objectMapperBuilder,
+                                   ContentNegotiationManager contentNegotiationManager,
+                                   @Value("${libris.response-cache.gzip-min-size:2KB}") DataSize gzipMinSize,
+                                   @Value("${libris.response-cache.max-size:64MB}") DataSize maxSize) {
+        this.catalogVersion = catalogVersion;
+        this.contentNegotiationManager = contentNegotiationManager;
+        // JSON first: it is what */* and unsupported Accept values get
+        this.mappers.put(MediaType.APPLICATION_JSON, objectMapper);
+        this.mappers.put(MediaType.APPLICATION_CBOR, ContentNegotiationConfig.cborMapper(objectMapperBuilder));
+        this.gzipMinSize = gzipMinSize.toBytes();
+        this.entries = Caffeine.newBuilder()
+                .maximumWeight(maxSize.toBytes())
+                .weigher((String key, SerializedResponse response) -> response.size())
+                .build();
+    }
+
+    /**
+     * The first of JSON / CBOR the request accepts. Accepting neither is answered with 406, as on the endpoints
+     * that go through the message converters.
+     */
+
+    public MediaType negotiate(NativeWebRequest request) throws HttpMediaTypeNotAcceptableException {
+        List<MediaType> accepted = contentNegotiationManager.resolveMediaTypes(request);
+        for (MediaType type : accepted) {
+            for (MediaType producible : mappers.keySet()) {
+                if (type.isCompatibleWith(producible)) {
+                    return producible;
+                }
+            }
+        }
+        throw new HttpMediaTypeNotAcceptableException(List.copyOf(mappers.keySet()));
+    }
+
+    /**
+     * Returns the encoded body for the current catalogue version, calling the loader only when there is none yet.
+     * Concurrent requests for a stale entry wait for a single load. The load and encode run on the calling thread
+     * outside the cache's own locks, so a slow list never holds up other names or media types.
+     */
+
+    @PrimaryRead
+    public SerializedResponse get(String name, MediaType mediaType, Supplier<?> loader) {
+        String version = catalogVersion.etag();
+        String key = name + ":" + mediaType;
+        SerializedResponse cached = entries.getIfPresent(key);
+        if (cached != null && cached.version().equals(version)) {
+            return cached;
+        }
+
+        String flightKey = key + "@" + version;
+        CompletableFuture<SerializedResponse> flight = new CompletableFuture<>();
+        CompletableFuture<SerializedResponse> running = loading.putIfAbsent(flightKey, flight);
+        if (running != null) {
+            return await(running);
+        }
+        try {
+            SerializedResponse loaded = encode(version, mediaType, loader.get());
+            // Entries are only ever served for their own version, so a load overtaken by a change is just not kept
+            if (version.equals(catalogVersion.etag())) {
+                entries.put(key, loaded);
+                entries.asMap().values().removeIf(response -> !response.version().equals(version));
+            }
+            flight.complete(loaded);
+            return loaded;
+        } catch (RuntimeException ex) {
+            flight.completeExceptionally(ex);
+            throw ex;
+        } finally {
+            loading.remove(flightKey, flight);
+        }
+    }
+
+    private static SerializedResponse await(CompletableFuture<SerializedResponse> running) {
+        try {
+            return running.join();
+        } catch (CompletionException ex) {
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw ex;
+        }
+    }
+
+    /**
+     * True when Accept-Encoding allows gzip: listed as gzip (or x-gzip) or covered by *, with a non-zero q-value.
+     */
+
+    static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        Double gzip = null;
+        Double any = null;
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.split(";");
+            String name = parts[0].trim().toLowerCase(Locale.ROOT);
+            double quality = 1.0;
+            for (int i = 1; i < parts.length; i++) {
+                String parameter = parts[i].trim();
+                if (parameter.length() > 2 && parameter.substring(0, 2).equalsIgnoreCase("q=")) {
+                    try {
+                        quality = Double.parseDouble(parameter.substring(2).trim());
+                    } catch (NumberFormatException ex) {
+                        quality = 0;
+                    }
+                }
+            }
+            if (name.equals("gzip") || name.equals("x-gzip")) {
+                gzip = quality;
+            } else if (name.equals("*")) {
+                any = quality;
+            }
+        }
+        Double quality = gzip != null ? gzip : any;
+        return quality != null && quality > 0;
+    }
+
+    long estimatedSize() {
+        entries.cleanUp();
+        return entries.estimatedSize();
+    }
+
+    private SerializedResponse encode(String version, MediaType mediaType, Object body) {
+        byte[] encoded;
+        try {
+            encoded = mappers.get(mediaType).writeValueAsBytes(body);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Cannot serialize cached response", ex);
+        }
+        return new SerializedResponse(version, mediaType, encoded, encoded.length >= gzipMinSize ? gzip(encoded) : null);
+    }
+
+    private static byte[] gzip(byte[] body) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(body.length / 4);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(body);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        return out.toByteArray();
+    }
+
+    public record SerializedResponse(String version, MediaType contentType, byte[] body, byte[] gzip) {
+
+        int size() {
+            return body.length + (gzip != null ? gzip.length : 0);
+        }
+
+        /**
+         * 200 response with the gzip copy when the client accepts it and one exists, the plain body otherwise.
+         */
+
+        public ResponseEntity<byte[]> toResponse(String acceptEncoding) {
+            ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                    .contentType(contentType)
+                    .varyBy(HttpHeaders.ACCEPT, HttpHeaders.ACCEPT_ENCODING);
+            if (gzip != null && acceptsGzip(acceptEncoding)) {
+                return response.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(gzip);
+            }
+            return response.body(body);
+        }
+    }
+}
@@ -0,0 +1,203 @@
+package com.nurbb.libris.cache;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.cache.support.SimpleValueWrapper;
+
+import java.time.Duration;
+import java.util.concurrent.Callable;
+import java.util.function.Supplier;
+
+/**
+ * A bounded local near-cache in front of a shared {@link RemoteCacheTier}.
+ * Reads try the near-cache, then the shared tier, then the loader. Writes and evictions go to both tiers.
+ * Only evictions and clears are broadcast, so the other nodes drop their near-cache copy instead of serving it
+ * until it expires. Writes are not: every put comes from a cache fill (non-sync @Cacheable, the batch user lookup),
+ * never from @CachePut, and a fresh load is not a change the other nodes need to hear about.
+ * Keys are converted to strings for both tiers, which is how they travel in invalidation messages.
+ * The shared tier is best effort: when it fails the cache keeps working as a local cache and
+ * the near-cache TTL bounds how long a missed invalidation can be served.
+ */
+
+@Slf4j
+public class TwoLevelCache implements Cache {
+
+    private static final String KEY_PREFIX = "libris:cache:";
+
+    private final CaffeineCache local;
+    private final RemoteCacheTier remote;
+    private final ObjectMapper objectMapper;
+    private final Duration ttl;
+    private final String origin;
+
+    public TwoLevelCache(CaffeineCache local, RemoteCacheTier remote, ObjectMapper objectMapper, Duration ttl, String origin) {
+        this.local = local;
+        this.remote = remote;
+        this.objectMapper = objectMapper;
+        this.ttl = ttl;
+        this.origin = origin;
+    }
+
+    @Override
+    public String getName() {
+        return local.getName();
+    }
+
+    @Override
+    public com.github.benmanes.caffeine.cache.Cache<Object, Object> getNativeCache() {
+        return local.getNativeCache();
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        String localKey = localKey(key);
+        ValueWrapper cached = local.get(localKey);
+        if (cached != null) {
+            return cached;
+        }
+        String json = remote(() -> remote.get(remoteKey(localKey)));
+        ValueWrapper shared = json != null ? read(json) : null;
+        if (shared != null) {
+            local.put(localKey, shared.get());
+        }
+        return shared;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Class<T> type) {
+        ValueWrapper wrapper = get(key);
+        Object value = wrapper != null ? wrapper.get() : null;
+        if (value != null && type != null && !type.isInstance(value)) {
+            throw new IllegalStateException("Cached value is not of required type [" + type.getName() + "]: " + value);
+        }
+        return (T) value;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        ValueWrapper cached = get(key);
+        if (cached != null) {
+            return (T) cached.get();
+        }
+        T value;
+        try {
+            value = valueLoader.call();
+        } catch (Exception ex) {
+            throw new ValueRetrievalException(key, valueLoader, ex);
+        }
+        store(localKey(key), value);
+        return value;
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        store(localKey(key), value);
+    }
+
+    @Override
+    public void evict(Object key) {
+        String localKey = localKey(key);
+        local.evict(localKey);
+        remote(() -> {
+            remote.delete(remoteKey(localKey));
+            return null;
+        });
+        broadcast(localKey);
+    }
+
+    @Override
+    public void clear() {
+        local.clear();
+        remote(() -> {
+            remote.deleteByPrefix(remoteKey(""));
+            return null;
+        });
+        broadcast(null);
+    }
+
+    /**
+     * Drops this node's near-cache only, without the shared-tier scan or a broadcast. Meant for callers that
+     * already tell the other nodes themselves and whose keys leave old shared entries unreachable, such as the
+     * version-keyed catalogue caches; use {@link #clear()} to empty both tiers on every node.
+     */
+
+    @Override
+    public boolean invalidate() {
+        return local.invalidate();
+    }
+
+    /**
+     * Applies an invalidation received from another node to this node's near-cache only.
+     */
+
+    public void onInvalidation(CacheInvalidation invalidation) {
+        if (origin.equals(invalidation.origin())) {
+            return;
+        }
+        if (invalidation.key() == null) {
+            local.clear();
+        } else {
+            local.evict(invalidation.key());
+        }
+    }
+
+    private void store(String localKey, Object value) {
+        local.put(localKey, value);
+        String json = write(value);
+        remote(() -> {
+            remote.put(remoteKey(localKey), json, ttl);
+            return null;
+        });
+    }
+
+    private void broadcast(String localKey) {
+        remote(() -> {
+            remote.publish(new CacheInvalidation(origin, getName(), localKey));
+            return null;
+        });
+    }
+
+    private <T> T remote(Supplier<T> call) {
+        try {
+            return call.get();
+        } catch (RuntimeException ex) {
+            log.warn("Shared cache tier unavailable for cache '{}': {}", getName(), ex.getMessage());
+            return null;
+        }
+    }
+
+    private String localKey(Object key) {
+        return String.valueOf(key);
+    }
+
+    private String remoteKey(String localKey) {
+        return KEY_PREFIX + getName() + "::" + localKey;
+    }
+
+    private String write(Object value) {
+        try {
+            // Written as Object so the root value carries its type id too, even for final collection types
+            return objectMapper.writerFor(Object.class).writeValueAsString(value);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalArgumentException("Cannot serialize value for cache '" + getName() + "'", ex);
+        }
+    }
+
+    /**
+     * Null when the shared value cannot be read (e.g. written by an incompatible release); treated as a miss.
+     */
+
+    private ValueWrapper read(String json) {
+        try {
+            return new SimpleValueWrapper(objectMapper.readValue(json, Object.class));
+        } catch (JsonProcessingException ex) {
+            log.warn("Ignoring unreadable shared entry in cache '{}': {}", getName(), ex.getOriginalMessage());
+            return null;
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package com.nurbb.libris.config;
+
+import com.fasterxml.jackson.annotation.JsonTypeInfo;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.jsontype.BasicPolymorphicTypeValidator;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.nurbb.libris.cache.RemoteCacheTier;
+import com.nurbb.libris.cache.TwoLevelCache;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.metrics.cache.CacheMeterBinderProvider;
+import org.springframework.boot.autoconfigure.cache.CacheProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.StringUtils;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Caffeine cache manager built from the spring.cache.* properties. Caches listed in
+ * libris.cache.stale-while-revalidate are wrapped in a {@link StaleWhileRevalidateCache}; when a shared tier
+ * is configured (libris.cache.remote.type), caches listed in libris.cache.remote.caches become
+ * {@link TwoLevelCache}s with a near-cache that expires after libris.cache.remote.near-cache-ttl.
+ */
+
+@Configuration
+@EnableConfigurationProperties(CacheProperties.class)
+public class CacheConfig {
+
+    @Bean
+    public CacheManager cacheManager(CacheProperties cacheProperties,
+                                     ObjectProvider<RemoteCacheTier> remoteCacheTier,
+                                     ObjectMapper objectMapper,
+                                     @Value("${libris.cache.stale-while-revalidate:libraryStatistics,overdueStats}") Set<String> staleWhileRevalidate,
+                                     @Value("${libris.cache.remote.caches:userById,borrowHistory}") Set<String> remoteCaches,
+                                     @Value("${libris.cache.remote.ttl:30m}") Duration remoteTtl,
+                                     @Value("${libris.cache.remote.near-cache-ttl:5m}") Duration nearCacheTtl) {
+        String spec = cacheProperties.getCaffeine().getSpec();
+        RemoteCacheTier remote = remoteCacheTier.getIfAvailable();
+        ObjectMapper valueMapper = cacheValueMapper(objectMapper);
+        String origin = UUID.randomUUID().toString();
+
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager() {
+            @Override
+            protected Cache adaptCaffeineCache(String name, com.github.benmanes.caffeine.cache.Cache<Object, Object> cache) {
+                if (staleWhileRevalidate.contains(name)) {
+                    return new StaleWhileRevalidateCache((CaffeineCache) super.adaptCaffeineCache(name, cache));
+                }
+                if (remote != null && remoteCaches.contains(name)) {
+                    Caffeine<Object, Object> nearCache = StringUtils.hasText(spec) ? Caffeine.from(spec) : Caffeine.newBuilder();
+                    CaffeineCache local = new CaffeineCache(name, nearCache.expireAfterWrite(nearCacheTtl).build(), isAllowNullValues());
+                    return new TwoLevelCache(local, remote, valueMapper, remoteTtl, origin);
+                }
+                return super.adaptCaffeineCache(name, cache);
+            }
+        };
+        if (StringUtils.hasText(spec)) {
+            cacheManager.setCacheSpecification(spec);
+        }
+        if (!cacheProperties.getCacheNames().isEmpty()) {
+            cacheManager.setCacheNames(cacheProperties.getCacheNames());
+        }
+        if (remote != null) {
+            remote.subscribe(invalidation -> {
+                if (cacheManager.getCache(invalidation.cache()) instanceof TwoLevelCache twoLevelCache) {
+                    twoLevelCache.onInvalidation(invalidation);
+                }
+            });
+        }
+        return cacheManager;
+    }
+
+    /**
+     * JSON for values in the shared tier, with type information restricted to application DTOs and JDK types.
+     */
+
+    static ObjectMapper cacheValueMapper(ObjectMapper objectMapper) {
+        BasicPolymorphicTypeValidator validator = BasicPolymorphicTypeValidator.builder()
+                .allowIfSubType("com.nurbb.libris.model.dto.")
+                .allowIfSubType("java.util.")
+                .allowIfSubType("java.time.")
+                .allowIfSubType("java.lang.")
+                .build();
+        return objectMapper.copy().activateDefaultTyping(validator, ObjectMapper.DefaultTyping.NON_FINAL, JsonTypeInfo.As.PROPERTY);
+    }
+
+    /**
+     * Keeps the cache.gets / cache.size meters for the wrapped caches.
+     */
+
+    @Bean
+    public CacheMeterBinderProvider<StaleWhileRevalidateCache> staleWhileRevalidateCacheMeterBinderProvider() {
+        return (cache, tags) -> new CaffeineCacheMetrics<>(cache.getNativeCache(), cache.getName(), tags);
+    }
+
+    @Bean
+    public CacheMeterBinderProvider<TwoLevelCache> twoLevelCacheMeterBinderProvider() {
+        return (cache, tags) -> new CaffeineCacheMetrics<>(cache.getNativeCache(), cache.getName(), tags);
+    }
+}
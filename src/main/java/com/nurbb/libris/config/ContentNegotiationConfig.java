@@ -0,0 +1,40 @@
+package com.nurbb.libris.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+/**
+ * CBOR (application/cbor) next to JSON for clients that ask for it in Accept. JSON stays the default.
+ * Spring MVC registers the CBOR converter once jackson-dataformat-cbor is on the class path; here it gets
+ * a mapper built from the same spring.jackson.* settings as the JSON one, so both encode the same fields
+ * and dates the same way.
+ */
+
+@Configuration
+public class ContentNegotiationConfig implements WebMvcConfigurer {
+
+    private final ObjectMapper cborMapper;
+
+    public ContentNegotiationConfig(Jackson2ObjectMapperBuilder objectMapperBuilder) {
+        this.cborMapper = cborMapper(objectMapperBuilder);
+    }
+
+    public static ObjectMapper cborMapper(Jackson2ObjectMapperBuilder objectMapperBuilder) {
+        return objectMapperBuilder.createXmlMapper(false).factory(new CBORFactory()).build();
+    }
+
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        converters.stream()
+                .filter(MappingJackson2CborHttpMessageConverter.class::isInstance)
+                .map(MappingJackson2CborHttpMessageConverter.class::cast)
+                .forEach(converter -> converter.setObjectMapper(cborMapper));
+    }
+}
@@ -0,0 +1,55 @@
+package com.nurbb.libris.config;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import com.nurbb.libris.model.entity.Author;
+import com.nurbb.libris.model.entity.Book;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.net.URI;
+import java.time.Duration;
+import java.util.List;
+import java.util.OptionalLong;
+import java.util.UUID;
+
+/**
+ * Hibernate second-level cache for the rarely changing catalogue entities (Book, Author), backed by a
+ * local Caffeine JCache provider. Every region is created here with a size bound and a write TTL
+ * (as a safety net for changes made outside the application); Hibernate is configured to fail on
+ * any region that is not listed instead of creating an unbounded one. The regions are node-local:
+ * a catalogue change on another node evicts them through CatalogVersion.
+ */
+
+@Configuration
+public class EntityCacheConfig {
+
+    static final List<String> REGIONS = List.of(
+            Book.class.getName(), Book.class.getName() + "##NaturalId",
+            Author.class.getName(), Author.class.getName() + "##NaturalId");
+
+    @Bean(destroyMethod = "close")
+    public CacheManager entityCacheManager(@Value("${libris.entity-cache.maximum-size:10000}") long maximumSize,
+                                           @Value("${libris.entity-cache.expire-after-write:1h}") Duration expireAfterWrite) {
+        // A URI of its own per application context, so test contexts living side by side do not share regions
+        CacheManager cacheManager = Caching.getCachingProvider(CaffeineCachingProvider.class.getName())
+                .getCacheManager(URI.create("libris-entity-cache-" + UUID.randomUUID()), getClass().getClassLoader());
+
+        CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+        configuration.setMaximumSize(OptionalLong.of(maximumSize));
+        configuration.setExpireAfterWrite(OptionalLong.of(expireAfterWrite.toNanos()));
+        configuration.setStatisticsEnabled(true);
+        REGIONS.forEach(region -> cacheManager.createCache(region, configuration));
+        return cacheManager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer entityCacheCustomizer(CacheManager entityCacheManager) {
+        return properties -> properties.put(ConfigSettings.CACHE_MANAGER, entityCacheManager);
+    }
+}
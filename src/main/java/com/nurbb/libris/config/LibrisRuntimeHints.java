@@ -0,0 +1,108 @@
+package com.nurbb.libris.config;
+
+import com.nurbb.libris.cache.CacheInvalidation;
+import com.nurbb.libris.logging.SamplingTurboFilter;
+import com.nurbb.libris.model.dto.projection.BorrowSummary;
+import com.nurbb.libris.model.dto.request.AuthRequest;
+import com.nurbb.libris.model.dto.request.AuthorRequest;
+import com.nurbb.libris.model.dto.request.BookRequest;
+import com.nurbb.libris.model.dto.request.BorrowRequest;
+import com.nurbb.libris.model.dto.request.UserRequest;
+import com.nurbb.libris.model.dto.response.*;
+import com.nurbb.libris.model.entity.*;
+import com.nurbb.libris.model.entity.valueobject.Genre;
+import com.nurbb.libris.model.entity.valueobject.Level;
+import com.nurbb.libris.model.entity.valueobject.Role;
+import net.ttddyy.dsproxy.proxy.ProxyJdbcObject;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.aot.hint.TypeReference;
+
+import javax.sql.DataSource;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.List;
+
+/**
+ * Hints for the GraalVM native image that Spring AOT cannot infer from the bean definitions:
+ * reflective access done by Hibernate, Jackson/springdoc, MapStruct, jjwt and logback,
+ * and the JDK proxies created by datasource-proxy.
+ */
+
+public class LibrisRuntimeHints implements RuntimeHintsRegistrar {
+
+    static final List<Class<?>> ENTITIES = List.of(
+            BaseEntity.class, Author.class, Book.class, Borrow.class, BorrowArchive.class, User.class,
+            GamificationEvent.class, IdempotencyRecord.class, Genre.class, Level.class, Role.class);
+
+    static final List<Class<?>> DTOS = List.of(
+            AuthRequest.class, AuthorRequest.class, BookRequest.class, BorrowRequest.class, UserRequest.class,
+            AuthResponse.class, AuthorResponse.class, BookAvailabilityResponse.class, BookDeleteResponse.class,
+            BookResponse.class, BorrowResponse.class, LibraryStatisticsResponse.class, SimpleCount.class,
+            UserResponse.class, UserStatisticsResponse.class, BorrowSummary.class, CacheInvalidation.class);
+
+    static final List<String> MAPPERS = List.of(
+            "com.nurbb.libris.model.mapper.AuthorMapperImpl",
+            "com.nurbb.libris.model.mapper.BookMapperImpl",
+            "com.nurbb.libris.model.mapper.BorrowMapperImpl",
+            "com.nurbb.libris.model.mapper.UserMapperImpl");
+
+    // Looked up by name through io.jsonwebtoken.lang.Classes
+    static final List<String> JJWT_IMPLEMENTATIONS = List.of(
+            "io.jsonwebtoken.impl.DefaultJwtBuilder",
+            "io.jsonwebtoken.impl.DefaultJwtParserBuilder",
+            "io.jsonwebtoken.impl.DefaultJwtHeaderBuilder",
+            "io.jsonwebtoken.impl.DefaultClaimsBuilder",
+            "io.jsonwebtoken.impl.io.StandardCompressionAlgorithms",
+            "io.jsonwebtoken.impl.security.KeysBridge",
+            "io.jsonwebtoken.impl.security.StandardSecureDigestAlgorithms",
+            "io.jsonwebtoken.impl.security.StandardEncryptionAlgorithms",
+            "io.jsonwebtoken.impl.security.StandardKeyAlgorithms",
+            "io.jsonwebtoken.impl.security.StandardKeyOperations",
+            "io.jsonwebtoken.impl.security.StandardHashAlgorithms",
+            "io.jsonwebtoken.impl.security.StandardCurves",
+            "io.jsonwebtoken.jackson.io.JacksonSerializer",
+            "io.jsonwebtoken.jackson.io.JacksonDeserializer");
+
+    static final List<Class<?>> JDBC_PROXY_TYPES = List.of(
+            DataSource.class, Connection.class, Statement.class, PreparedStatement.class,
+            CallableStatement.class, ResultSet.class);
+
+    @Override
+    public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+        // Entities and value objects: Hibernate reads fields and calls constructors and lifecycle callbacks
+        ENTITIES.forEach(type -> hints.reflection().registerType(type,
+                MemberCategory.DECLARED_FIELDS, MemberCategory.INVOKE_DECLARED_CONSTRUCTORS,
+                MemberCategory.INVOKE_DECLARED_METHODS));
+
+        // DTOs: Jackson (de)serialization, springdoc schema generation, JPQL constructor expressions
+        DTOS.forEach(type -> hints.reflection().registerType(type,
+                MemberCategory.DECLARED_FIELDS, MemberCategory.INVOKE_DECLARED_CONSTRUCTORS,
+                MemberCategory.INVOKE_PUBLIC_METHODS));
+
+        MAPPERS.forEach(name -> hints.reflection().registerType(TypeReference.of(name),
+                MemberCategory.INVOKE_DECLARED_CONSTRUCTORS, MemberCategory.INVOKE_PUBLIC_METHODS));
+
+        JJWT_IMPLEMENTATIONS.forEach(name -> hints.reflection().registerType(TypeReference.of(name),
+                MemberCategory.INVOKE_DECLARED_CONSTRUCTORS, MemberCategory.INVOKE_PUBLIC_METHODS,
+                MemberCategory.INVOKE_DECLARED_METHODS));
+        hints.resources().registerPattern("META-INF/services/io.jsonwebtoken.*");
+
+        // Instantiated by logback from logback-spring.xml
+        hints.reflection().registerType(SamplingTurboFilter.class,
+                MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS, MemberCategory.INVOKE_PUBLIC_METHODS);
+
+        // datasource-proxy wraps every JDBC object in a JDK proxy that also implements ProxyJdbcObject
+        JDBC_PROXY_TYPES.forEach(type -> hints.proxies().registerJdkProxy(ProxyJdbcObject.class, type));
+
+        // Swagger UI static assets and the webjar version lookup
+        hints.resources().registerPattern("META-INF/resources/webjars/swagger-ui/*");
+        hints.resources().registerPattern("META-INF/maven/org.webjars/swagger-ui/pom.properties");
+
+        hints.resources().registerPattern("db/migration/*.sql");
+    }
+}
@@ -0,0 +1,14 @@
+package com.nurbb.libris.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.ImportRuntimeHints;
+
+/**
+ * Contributes the native-image hints in {@link LibrisRuntimeHints} during AOT processing.
+ * Has no effect when running on the JVM.
+ */
+
+@Configuration
+@ImportRuntimeHints(LibrisRuntimeHints.class)
+public class NativeHintsConfig {
+}
@@ -0,0 +1,144 @@
+package com.nurbb.libris.config;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.caffeine.CaffeineCache;
+
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Caffeine cache for expensive reports that are evicted on every write.
+ * <ul>
+ *     <li>Single flight: when a key is missing, one caller runs the loader and concurrent callers wait for its result.</li>
+ *     <li>Stale-while-revalidate: evict/clear only mark entries stale. The first caller to hit a stale entry recomputes it
+ *     while everybody else keeps getting the previous value.</li>
+ * </ul>
+ * The loader always runs on the calling thread, inside the caller's transaction and security context.
+ * Used through {@code @Cacheable(sync = true)}, which routes lookups to {@link #get(Object, Callable)}.
+ */
+
+public class StaleWhileRevalidateCache implements Cache {
+
+    private final CaffeineCache delegate;
+    private final Set<Object> staleKeys = ConcurrentHashMap.newKeySet();
+    private final ConcurrentMap<Object, CompletableFuture<Object>> loading = new ConcurrentHashMap<>();
+    private final AtomicLong generation = new AtomicLong();
+
+    public StaleWhileRevalidateCache(CaffeineCache delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public String getName() {
+        return delegate.getName();
+    }
+
+    @Override
+    public com.github.benmanes.caffeine.cache.Cache<Object, Object> getNativeCache() {
+        return delegate.getNativeCache();
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        return delegate.get(key);
+    }
+
+    @Override
+    public <T> T get(Object key, Class<T> type) {
+        return delegate.get(key, type);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        ValueWrapper cached = delegate.get(key);
+        if (cached != null && !staleKeys.contains(key)) {
+            return (T) cached.get();
+        }
+
+        CompletableFuture<Object> flight = new CompletableFuture<>();
+        CompletableFuture<Object> running = loading.putIfAbsent(key, flight);
+        if (running != null) {
+            // Somebody else is already computing this key
+            return cached != null ? (T) cached.get() : (T) await(key, valueLoader, running);
+        }
+        return (T) load(key, valueLoader, flight);
+    }
+
+    private Object load(Object key, Callable<?> valueLoader, CompletableFuture<Object> flight) {
+        long startGeneration = generation.get();
+        try {
+            Object value = valueLoader.call();
+            delegate.put(key, value);
+            // An eviction while the loader ran means the value may already be outdated
+            if (generation.get() == startGeneration) {
+                staleKeys.remove(key);
+            } else {
+                staleKeys.add(key);
+            }
+            flight.complete(value);
+            return value;
+        } catch (Exception ex) {
+            flight.completeExceptionally(ex);
+            throw new ValueRetrievalException(key, valueLoader, ex);
+        } finally {
+            loading.remove(key, flight);
+        }
+    }
+
+    private Object await(Object key, Callable<?> valueLoader, CompletableFuture<Object> running) {
+        try {
+            return running.join();
+        } catch (CompletionException ex) {
+            throw new ValueRetrievalException(key, valueLoader, ex.getCause());
+        }
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        delegate.put(key, value);
+        staleKeys.remove(key);
+    }
+
+    @Override
+    public ValueWrapper putIfAbsent(Object key, Object value) {
+        return delegate.putIfAbsent(key, value);
+    }
+
+    @Override
+    public void evict(Object key) {
+        evictIfPresent(key);
+    }
+
+    @Override
+    public boolean evictIfPresent(Object key) {
+        generation.incrementAndGet();
+        if (!getNativeCache().asMap().containsKey(key)) {
+            return false;
+        }
+        staleKeys.add(key);
+        return true;
+    }
+
+    @Override
+    public void clear() {
+        generation.incrementAndGet();
+        staleKeys.addAll(getNativeCache().asMap().keySet());
+    }
+
+    @Override
+    public boolean invalidate() {
+        generation.incrementAndGet();
+        staleKeys.clear();
+        return delegate.invalidate();
+    }
+
+    boolean isStale(Object key) {
+        return staleKeys.contains(key);
+    }
+}
@@ -1,5 +1,6 @@
 package com.nurbb.libris.controller;
 
+import com.nurbb.libris.cache.CatalogVersion;
 import com.nurbb.libris.model.dto.request.AuthorRequest;
 import com.nurbb.libris.model.dto.response.AuthorResponse;
 import com.nurbb.libris.model.entity.Author;
@@ -19,6 +20,7 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.NativeWebRequest;
 
 import java.util.List;
 import java.util.UUID;
@@ -32,6 +34,7 @@ public class AuthorController {
 
     private final AuthorService authorService;
     private final AuthorMapper authorMapper;
+    private final CatalogVersion catalogVersion;
 
     @PreAuthorize("hasRole('LIBRARIAN')")
     @PostMapping
@@ -61,14 +64,15 @@ public class AuthorController {
             description = "Retrieves a list of all authors in the system.",
             responses = {
                     @ApiResponse(responseCode = "200", description = "Authors retrieved successfully",
-                            content = @Content(array = @ArraySchema(schema = @Schema(implementation = AuthorResponse.class))))
+                            content = @Content(array = @ArraySchema(schema = @Schema(implementation = AuthorResponse.class)))),
+                    @ApiResponse(responseCode = "304", description = "Catalogue unchanged since the ETag in If-None-Match")
             }
     )
-    public ResponseEntity<List<AuthorResponse>> getAllAuthors() {
-        List<AuthorResponse> responses = authorService.getAllAuthors().stream()
-                .map(authorMapper::toResponse)
-                .toList();
-        return ResponseEntity.ok(responses);
+    public ResponseEntity<List<AuthorResponse>> getAllAuthors(NativeWebRequest webRequest) {
+        if (catalogVersion.checkNotModified(webRequest)) {
+            return null;
+        }
+        return ResponseEntity.ok(authorService.getAllAuthors());
     }
 
     @GetMapping("/{id}")
@@ -81,12 +85,15 @@ public class AuthorController {
             responses = {
                     @ApiResponse(responseCode = "200", description = "Author found",
                             content = @Content(schema = @Schema(implementation = AuthorResponse.class))),
+                    @ApiResponse(responseCode = "304", description = "Catalogue unchanged since the ETag in If-None-Match"),
                     @ApiResponse(responseCode = "404", description = "Author not found")
             }
     )
-    public ResponseEntity<AuthorResponse> getAuthorById(@PathVariable UUID id) {
+    public ResponseEntity<AuthorResponse> getAuthorById(@PathVariable UUID id, NativeWebRequest webRequest) {
+        if (catalogVersion.checkNotModified(webRequest)) {
+            return null;
+        }
         return authorService.getAuthorById(id)
-                .map(authorMapper::toResponse)
                 .map(ResponseEntity::ok)
                 .orElse(ResponseEntity.notFound().build());
     }
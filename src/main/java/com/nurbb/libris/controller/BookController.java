@@ -1,5 +1,7 @@
 package com.nurbb.libris.controller;
 
+import com.nurbb.libris.cache.CatalogVersion;
+import com.nurbb.libris.cache.SerializedResponseCache;
 import com.nurbb.libris.model.dto.request.BookRequest;
 import com.nurbb.libris.model.dto.response.BookDeleteResponse;
 import com.nurbb.libris.model.dto.response.BookResponse;
@@ -14,14 +16,19 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Size;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.HttpMediaTypeNotAcceptableException;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.NativeWebRequest;
 
 import java.util.List;
+import java.util.Set;
 import java.util.UUID;
 
 @RestController
@@ -31,7 +38,11 @@ import java.util.UUID;
 @Tag(name = "Book Management", description = "Endpoints for managing book records including add, update, delete, search and retrieval operations.")
 public class BookController {
 
+    static final int MAX_BATCH_IDS = 100;
+
     private final BookService bookService;
+    private final CatalogVersion catalogVersion;
+    private final SerializedResponseCache serializedResponseCache;
 
     @PreAuthorize("hasRole('LIBRARIAN')")
     @PostMapping
@@ -60,11 +71,68 @@ public class BookController {
             description = "Returns a list of all books in the system. Accessible to guests, patrons, and librarians.",
             responses = {
                     @ApiResponse(responseCode = "200", description = "Books successfully retrieved",
-                            content = @Content(array = @ArraySchema(schema = @Schema(implementation = BookResponse.class))))
+                            content = @Content(array = @ArraySchema(schema = @Schema(implementation = BookResponse.class)))),
+                    @ApiResponse(responseCode = "304", description = "Catalogue unchanged since the ETag in If-None-Match"),
+                    @ApiResponse(responseCode = "406", description = "Accept allows neither JSON nor CBOR")
+            }
+    )
+    public ResponseEntity<byte[]> getAllBooks(NativeWebRequest webRequest) throws HttpMediaTypeNotAcceptableException {
+        if (catalogVersion.checkNotModified(webRequest)) {
+            return null;
+        }
+        // Encoded once per catalogue version instead of on every request
+        return serializedResponseCache.get("bookList", serializedResponseCache.negotiate(webRequest), bookService::getAllBooks)
+                .toResponse(webRequest.getHeader(HttpHeaders.ACCEPT_ENCODING));
+    }
+
+    @PreAuthorize("hasAnyRole('GUEST', 'PATRON', 'LIBRARIAN')")
+    @GetMapping(params = { "fields", "!ids" })
+    @Operation(
+            summary = "Retrieve all books with selected fields",
+            description = "Same list as GET /api/books, with only the requested fields. Only those columns are read from the database.",
+            parameters = {
+                    @Parameter(name = "fields", description = "Comma-separated BookResponse fields, e.g. id,title,available", required = true)
+            },
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Books successfully retrieved"),
+                    @ApiResponse(responseCode = "304", description = "Catalogue unchanged since the ETag in If-None-Match"),
+                    @ApiResponse(responseCode = "400", description = "Unknown field requested"),
+                    @ApiResponse(responseCode = "406", description = "Accept allows neither JSON nor CBOR")
+            }
+    )
+    public ResponseEntity<byte[]> getAllBookFields(@RequestParam Set<String> fields, NativeWebRequest webRequest)
+            throws HttpMediaTypeNotAcceptableException {
+        // Canonical names, so spellings of the same field set share one cache entry
+        List<String> resolved = bookService.resolveFields(fields);
+        if (catalogVersion.checkNotModified(webRequest)) {
+            return null;
+        }
+        return serializedResponseCache.get("bookList:" + String.join(",", resolved),
+                        serializedResponseCache.negotiate(webRequest), () -> bookService.getAllBooks(resolved))
+                .toResponse(webRequest.getHeader(HttpHeaders.ACCEPT_ENCODING));
+    }
+
+    @PreAuthorize("hasAnyRole('GUEST', 'PATRON', 'LIBRARIAN')")
+    @GetMapping(params = "ids")
+    @Operation(
+            summary = "Get books by IDs",
+            description = "Returns the books with the given IDs in one response, in request order. Unknown IDs are left out.",
+            parameters = {
+                    @Parameter(name = "ids", description = "Comma-separated book UUIDs, at most " + MAX_BATCH_IDS, required = true)
+            },
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Books successfully retrieved",
+                            content = @Content(array = @ArraySchema(schema = @Schema(implementation = BookResponse.class)))),
+                    @ApiResponse(responseCode = "304", description = "Catalogue unchanged since the ETag in If-None-Match"),
+                    @ApiResponse(responseCode = "400", description = "Malformed or too many IDs")
             }
     )
-    public ResponseEntity<List<BookResponse>> getAllBooks() {
-        return ResponseEntity.ok(bookService.getAllBooks());
+    public ResponseEntity<List<BookResponse>> getBooksByIds(@RequestParam @Size(max = MAX_BATCH_IDS) List<UUID> ids,
+                                                            NativeWebRequest webRequest) {
+        if (catalogVersion.checkNotModified(webRequest)) {
+            return null;
+        }
+        return ResponseEntity.ok(bookService.getBooksByIds(ids));
     }
 
     @GetMapping("/{id}")
@@ -77,10 +145,14 @@ public class BookController {
             responses = {
                     @ApiResponse(responseCode = "200", description = "Book found",
                             content = @Content(schema = @Schema(implementation = BookResponse.class))),
+                    @ApiResponse(responseCode = "304", description = "Catalogue unchanged since the ETag in If-None-Match"),
                     @ApiResponse(responseCode = "404", description = "Book not found")
             }
     )
-    public ResponseEntity<BookResponse> getBookById(@PathVariable UUID id) {
+    public ResponseEntity<BookResponse> getBookById(@PathVariable UUID id, NativeWebRequest webRequest) {
+        if (catalogVersion.checkNotModified(webRequest)) {
+            return null;
+        }
         return ResponseEntity.ok(bookService.getBookById(id));
     }
 
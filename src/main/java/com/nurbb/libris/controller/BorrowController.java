@@ -3,8 +3,10 @@ package com.nurbb.libris.controller;
 import com.nurbb.libris.model.dto.request.BorrowRequest;
 import com.nurbb.libris.model.dto.response.BorrowResponse;
 import com.nurbb.libris.service.BorrowService;
+import com.nurbb.libris.service.IdempotencyService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.enums.ParameterIn;
 import io.swagger.v3.oas.annotations.media.ArraySchema;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
@@ -28,13 +30,20 @@ import java.util.UUID;
 @Tag(name = "Borrow Management", description = "Endpoints for borrowing and returning books")
 public class BorrowController {
 
+    private static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+
     private final BorrowService borrowService;
+    private final IdempotencyService idempotencyService;
 
     @PostMapping
     @PreAuthorize("hasRole('LIBRARIAN')")
     @Operation(
             summary = "Borrow a book",
-            description = "Allows a librarian to register a book as borrowed by a user.",
+            description = "Allows a librarian to register a book as borrowed by a user. "
+                    + "Retries sent with the same Idempotency-Key return the original response without borrowing again.",
+            parameters = {
+                    @Parameter(name = IDEMPOTENCY_KEY_HEADER, in = ParameterIn.HEADER, description = "Client-generated key for safe retries")
+            },
             requestBody = @RequestBody(
                     description = "Borrow request data including book ID, user email, borrow and due dates",
                     required = true,
@@ -46,17 +55,21 @@ public class BorrowController {
                     @ApiResponse(responseCode = "400", description = "Invalid request or book not available")
             }
     )
-    public ResponseEntity<BorrowResponse> borrowBook(@Valid @org.springframework.web.bind.annotation.RequestBody BorrowRequest request) {
-        return ResponseEntity.ok(borrowService.borrowBook(request));
+    public ResponseEntity<BorrowResponse> borrowBook(@Valid @org.springframework.web.bind.annotation.RequestBody BorrowRequest request,
+                                                     @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey) {
+        return ResponseEntity.ok(idempotencyService.execute(idempotencyKey, "borrow", request, BorrowResponse.class,
+                () -> borrowService.borrowBook(request)));
     }
 
     @PutMapping("/return/{borrowId}")
     @PreAuthorize("hasAnyRole('LIBRARIAN', 'PATRON')")
     @Operation(
             summary = "Return a borrowed book",
-            description = "Marks a borrowed book as returned.",
+            description = "Marks a borrowed book as returned. "
+                    + "Retries sent with the same Idempotency-Key return the original response instead of failing.",
             parameters = {
-                    @Parameter(name = "borrowId", description = "UUID of the borrow record", required = true)
+                    @Parameter(name = "borrowId", description = "UUID of the borrow record", required = true),
+                    @Parameter(name = IDEMPOTENCY_KEY_HEADER, in = ParameterIn.HEADER, description = "Client-generated key for safe retries")
             },
             responses = {
                     @ApiResponse(responseCode = "200", description = "Book successfully returned",
@@ -64,8 +77,10 @@ public class BorrowController {
                     @ApiResponse(responseCode = "404", description = "Borrow record not found")
             }
     )
-    public ResponseEntity<BorrowResponse> returnBook(@PathVariable UUID borrowId) {
-        return ResponseEntity.ok(borrowService.returnBook(borrowId));
+    public ResponseEntity<BorrowResponse> returnBook(@PathVariable UUID borrowId,
+                                                     @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey) {
+        return ResponseEntity.ok(idempotencyService.execute(idempotencyKey, "return", borrowId, BorrowResponse.class,
+                () -> borrowService.returnBook(borrowId)));
     }
 
     @GetMapping("/user/{userId}")
@@ -14,6 +14,7 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Size;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -23,6 +24,8 @@ import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 
 @RestController
@@ -97,6 +100,41 @@ public class UserController {
         return ResponseEntity.ok(userService.getAllUsers());
     }
 
+    @GetMapping(params = { "fields", "!ids" })
+    @PreAuthorize("hasAnyRole('LIBRARIAN', 'PATRON')")
+    @Operation(
+            summary = "Get all users with selected fields",
+            description = "Same users as GET /api/users, with only the requested fields. Only those columns are read from the database.",
+            parameters = {
+                    @Parameter(name = "fields", description = "Comma-separated UserResponse fields, e.g. id,fullName,email", required = true)
+            },
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Users retrieved successfully"),
+                    @ApiResponse(responseCode = "400", description = "Unknown field requested")
+            }
+    )
+    public ResponseEntity<List<Map<String, Object>>> getAllUserFields(@RequestParam Set<String> fields) {
+        return ResponseEntity.ok(userService.getAllUsers(fields));
+    }
+
+    @GetMapping(params = "ids")
+    @PreAuthorize("hasAnyRole('LIBRARIAN', 'PATRON')")
+    @Operation(
+            summary = "Get users by IDs",
+            description = "Returns the users with the given IDs in one response, in request order. Unknown IDs are left out; patrons only receive their own record.",
+            parameters = {
+                    @Parameter(name = "ids", description = "Comma-separated user UUIDs, at most " + BookController.MAX_BATCH_IDS, required = true)
+            },
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Users retrieved successfully",
+                            content = @Content(array = @ArraySchema(schema = @Schema(implementation = UserResponse.class)))),
+                    @ApiResponse(responseCode = "400", description = "Malformed or too many IDs")
+            }
+    )
+    public ResponseEntity<List<UserResponse>> getUsersByIds(@RequestParam @Size(max = BookController.MAX_BATCH_IDS) List<UUID> ids) {
+        return ResponseEntity.ok(userService.getUsersByIds(ids));
+    }
+
     @PutMapping("/{id}")
     @PreAuthorize("hasRole('LIBRARIAN')")
     @Operation(
@@ -0,0 +1,11 @@
+package com.nurbb.libris.datasource;
+
+/**
+ * Lookup keys of the routing DataSource.
+ */
+
+public enum DataSourceRoute {
+    PRIMARY,
+    REPLICA,
+    REPORTING
+}
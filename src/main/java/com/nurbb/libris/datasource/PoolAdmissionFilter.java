@@ -0,0 +1,117 @@
+package com.nurbb.libris.datasource;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nurbb.libris.exception.handler.ErrorResponse;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * Fail-fast admission control: while more than max-pending threads are already waiting for a connection of the
+ * primary pool, new requests are answered with 503 and Retry-After instead of joining the queue and failing only
+ * after the connection timeout. Runs ahead of the security chain, whose JWT user lookup needs a connection too.
+ * Actuator endpoints are always let through so probes and scrapes keep working under load.
+ */
+
+@Slf4j
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 1)
+@ConditionalOnProperty(prefix = "libris.datasource.admission", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class PoolAdmissionFilter extends OncePerRequestFilter {
+
+    private final DataSource dataSource;
+    private final ObjectMapper objectMapper;
+    private final int maxPending;
+    private final String retryAfterSeconds;
+    private final Counter rejected;
+
+    private volatile HikariPoolMXBean pool;
+    private volatile boolean unsupported;
+
+    public PoolAdmissionFilter(DataSource dataSource,
+                               ObjectMapper objectMapper,
+                               MeterRegistry meterRegistry,
+                               @Value("${libris.datasource.admission.max-pending:20}") int maxPending,
+                               @Value("${libris.datasource.admission.retry-after:1s}") Duration retryAfter) {
+        this.dataSource = dataSource;
+        this.objectMapper = objectMapper;
+        this.maxPending = maxPending;
+        this.retryAfterSeconds = String.valueOf(Math.max(1, retryAfter.toSeconds()));
+        this.rejected = Counter.builder("libris.datasource.admission.rejected")
+                .description("Requests answered with 503 because too many threads were waiting for a connection")
+                .register(meterRegistry);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return request.getRequestURI().startsWith(request.getContextPath() + "/actuator");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain chain) throws ServletException, IOException {
+
+        int pending = pendingConnections();
+        if (pending <= maxPending) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        rejected.increment();
+        log.debug("Rejecting {} {}: {} threads waiting for a connection", request.getMethod(), request.getRequestURI(), pending);
+        response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, retryAfterSeconds);
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), new ErrorResponse(LocalDateTime.now(),
+                HttpStatus.SERVICE_UNAVAILABLE.value(), HttpStatus.SERVICE_UNAVAILABLE.getReasonPhrase(),
+                "Database connection pool is saturated, retry later"));
+    }
+
+    /**
+     * Threads waiting on the primary pool. Hikari creates its pool on the first connection, so this is 0
+     * until then; a DataSource that is not Hikari is never limited.
+     */
+
+    int pendingConnections() {
+        HikariPoolMXBean current = pool;
+        if (current == null) {
+            if (unsupported) {
+                return 0;
+            }
+            try {
+                current = dataSource.unwrap(HikariDataSource.class).getHikariPoolMXBean();
+            } catch (SQLException ex) {
+                log.warn("DataSource is not a Hikari pool, admission control disabled");
+                unsupported = true;
+                return 0;
+            }
+            if (current == null) {
+                return 0;
+            }
+            pool = current;
+        }
+        return current.getThreadsAwaitingConnection();
+    }
+}
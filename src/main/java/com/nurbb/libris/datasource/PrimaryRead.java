@@ -0,0 +1,20 @@
+package com.nurbb.libris.datasource;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks reads whose results are cached (Spring caches, the Hibernate second-level cache, encoded responses).
+ * Their read-only transactions stay on the primary even when a replica is configured: a lagging replica would
+ * store rows from before the last write under a cache key, such as the catalogue version, that already claims
+ * to include it. On a class, applies to every public method.
+ */
+
+@Documented
+@Target({ElementType.METHOD, ElementType.TYPE})
+@Retention(RetentionPolicy.RUNTIME)
+public @interface PrimaryRead {
+}
@@ -0,0 +1,29 @@
+package com.nurbb.libris.datasource;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Opens a PrimaryReadScope around {@link PrimaryRead} methods. Like ReportingQueryAspect, its order relative to
+ * the transaction and cache interceptors does not matter: the routing DataSource picks its target at the first
+ * statement.
+ */
+
+@Aspect
+@Component
+@ConditionalOnProperty(prefix = "libris.datasource.replica", name = "enabled", havingValue = "true")
+public class PrimaryReadAspect {
+
+    @Around("@within(com.nurbb.libris.datasource.PrimaryRead) || @annotation(com.nurbb.libris.datasource.PrimaryRead)")
+    public Object route(ProceedingJoinPoint joinPoint) throws Throwable {
+        boolean nested = PrimaryReadScope.enter();
+        try {
+            return joinPoint.proceed();
+        } finally {
+            PrimaryReadScope.exit(nested);
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.nurbb.libris.datasource;
+
+/**
+ * Thread-bound flag telling the routing DataSource that the current call is a {@link PrimaryRead}.
+ * Nested calls keep the flag of the outermost one.
+ */
+
+public final class PrimaryReadScope {
+
+    private static final ThreadLocal<Boolean> ACTIVE = new ThreadLocal<>();
+
+    private PrimaryReadScope() {
+    }
+
+    public static boolean isActive() {
+        return ACTIVE.get() != null;
+    }
+
+    /**
+     * @return whether a scope was already open, to be handed back to {@link #exit(boolean)}
+     */
+
+    static boolean enter() {
+        boolean nested = isActive();
+        ACTIVE.set(Boolean.TRUE);
+        return nested;
+    }
+
+    static void exit(boolean nested) {
+        if (!nested) {
+            ACTIVE.remove();
+        }
+    }
+}
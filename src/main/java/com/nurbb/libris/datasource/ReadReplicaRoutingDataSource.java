@@ -0,0 +1,64 @@
+package com.nurbb.libris.datasource;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Sends connections of read-only transactions to the replica pool and everything else to the primary.
+ * Falls back to the primary while the lag monitor reports the replica as unusable, and stays on it inside a
+ * PrimaryReadScope (reads that fill caches).
+ * When a reporting pool is configured, calls inside a ReportingScope use it instead, read-only or not.
+ * Must be wrapped in a LazyConnectionDataSourceProxy so the lookup happens after the transaction's
+ * read-only flag has been bound.
+ */
+
+public class ReadReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    private final ReplicaLagMonitor lagMonitor;
+    private final boolean replicaEnabled;
+    private final boolean reportingEnabled;
+
+    public ReadReplicaRoutingDataSource(DataSource primary, DataSource replica, ReplicaLagMonitor lagMonitor) {
+        this(primary, replica, lagMonitor, null);
+    }
+
+    /**
+     * @param replica   read replica, or null to keep read-only transactions on the primary
+     * @param reporting pool for {@link ReportingQuery} calls, or null to keep them on the primary or replica
+     */
+
+    public ReadReplicaRoutingDataSource(DataSource primary, DataSource replica, ReplicaLagMonitor lagMonitor,
+                                        DataSource reporting) {
+        this.lagMonitor = lagMonitor;
+        this.replicaEnabled = replica != null && lagMonitor != null;
+        this.reportingEnabled = reporting != null;
+
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(DataSourceRoute.PRIMARY, primary);
+        if (replicaEnabled) {
+            targets.put(DataSourceRoute.REPLICA, replica);
+        }
+        if (reportingEnabled) {
+            targets.put(DataSourceRoute.REPORTING, reporting);
+        }
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (reportingEnabled && ReportingScope.isActive()) {
+            return DataSourceRoute.REPORTING;
+        }
+        if (replicaEnabled && TransactionSynchronizationManager.isCurrentTransactionReadOnly()
+                && !PrimaryReadScope.isActive() && lagMonitor.isReplicaUsable()) {
+            return DataSourceRoute.REPLICA;
+        }
+        return DataSourceRoute.PRIMARY;
+    }
+}
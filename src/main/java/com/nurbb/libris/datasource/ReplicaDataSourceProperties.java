@@ -0,0 +1,37 @@
+package com.nurbb.libris.datasource;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Connection and lag settings of the read replica. Pool settings are bound from
+ * libris.datasource.replica.hikari.*.
+ */
+
+@Data
+@ConfigurationProperties(prefix = "libris.datasource.replica")
+public class ReplicaDataSourceProperties {
+
+    private boolean enabled;
+
+    private String url;
+
+    private String username;
+
+    private String password;
+
+    private String driverClassName;
+
+    private Duration maxLag = Duration.ofSeconds(10);
+
+    /**
+     * Replay delay of the last transaction, but only while received WAL is still waiting to be replayed.
+     * Once the replica has replayed everything it received it is caught up, however long ago the last write was.
+     */
+
+    private String lagQuery = "select case when not pg_is_in_recovery() then 0 "
+            + "when pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() then 0 "
+            + "else coalesce(extract(epoch from now() - pg_last_xact_replay_timestamp()), 0) end";
+}
@@ -0,0 +1,61 @@
+package com.nurbb.libris.datasource;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * Periodically measures replication lag on the replica. While the lag exceeds the configured maximum,
+ * or the replica cannot be reached, read-only transactions are routed to the primary.
+ */
+
+@Slf4j
+public class ReplicaLagMonitor {
+
+    private final JdbcTemplate replicaJdbcTemplate;
+    private final String lagQuery;
+    private final Duration maxLag;
+
+    private volatile boolean replicaUsable = true;
+    private volatile double lagSeconds;
+
+    public ReplicaLagMonitor(DataSource replica, String lagQuery, Duration maxLag) {
+        this.replicaJdbcTemplate = new JdbcTemplate(replica);
+        this.lagQuery = lagQuery;
+        this.maxLag = maxLag;
+    }
+
+    @Scheduled(fixedDelayString = "${libris.datasource.replica.lag-check-interval:PT5S}")
+    public void checkLag() {
+        boolean usable;
+        try {
+            Double lag = replicaJdbcTemplate.queryForObject(lagQuery, Double.class);
+            lagSeconds = lag != null ? lag : 0;
+            usable = lagSeconds <= maxLag.toMillis() / 1000.0;
+        } catch (Exception ex) {
+            log.debug("Replica lag check failed", ex);
+            lagSeconds = Double.NaN;
+            usable = false;
+        }
+
+        if (usable != replicaUsable) {
+            if (usable) {
+                log.info("Replica is back within lag limit ({}s). Routing read-only transactions to replica.", lagSeconds);
+            } else {
+                log.warn("Replica lag {}s exceeds {} or replica unreachable. Routing reads to primary.", lagSeconds, maxLag);
+            }
+        }
+        replicaUsable = usable;
+    }
+
+    public boolean isReplicaUsable() {
+        return replicaUsable;
+    }
+
+    public double getLagSeconds() {
+        return lagSeconds;
+    }
+}
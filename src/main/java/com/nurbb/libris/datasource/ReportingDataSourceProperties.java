@@ -0,0 +1,24 @@
+package com.nurbb.libris.datasource;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Connection settings of the reporting pool. Unset values fall back to spring.datasource.*, so by default the
+ * pool connects to the primary database. Pool settings are bound from libris.datasource.reporting.hikari.*.
+ */
+
+@Data
+@ConfigurationProperties(prefix = "libris.datasource.reporting")
+public class ReportingDataSourceProperties {
+
+    private boolean enabled;
+
+    private String url;
+
+    private String username;
+
+    private String password;
+
+    private String driverClassName;
+}
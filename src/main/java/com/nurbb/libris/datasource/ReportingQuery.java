@@ -0,0 +1,19 @@
+package com.nurbb.libris.datasource;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks long-running statistics and export queries. While libris.datasource.reporting.enabled=true, their
+ * transactions take connections from the reporting pool instead of the one serving short OLTP transactions.
+ * On a class, applies to every public method.
+ */
+
+@Documented
+@Target({ElementType.METHOD, ElementType.TYPE})
+@Retention(RetentionPolicy.RUNTIME)
+public @interface ReportingQuery {
+}
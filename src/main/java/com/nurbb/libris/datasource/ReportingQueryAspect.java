@@ -0,0 +1,29 @@
+package com.nurbb.libris.datasource;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Opens a ReportingScope around {@link ReportingQuery} methods. The routing DataSource sits behind a
+ * LazyConnectionDataSourceProxy and picks its target at the first statement, so the order relative to the
+ * transaction and cache interceptors does not matter.
+ */
+
+@Aspect
+@Component
+@ConditionalOnProperty(prefix = "libris.datasource.reporting", name = "enabled", havingValue = "true")
+public class ReportingQueryAspect {
+
+    @Around("@within(com.nurbb.libris.datasource.ReportingQuery) || @annotation(com.nurbb.libris.datasource.ReportingQuery)")
+    public Object route(ProceedingJoinPoint joinPoint) throws Throwable {
+        boolean nested = ReportingScope.enter();
+        try {
+            return joinPoint.proceed();
+        } finally {
+            ReportingScope.exit(nested);
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package com.nurbb.libris.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.AnyNestedCondition;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Conditional;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+
+/**
+ * Replaces the auto-configured DataSource with a primary pool and, each when enabled, a replica pool
+ * (libris.datasource.replica.enabled=true) and a reporting pool (libris.datasource.reporting.enabled=true)
+ * behind a routing DataSource. Writes and non read-only transactions use the primary.
+ */
+
+@Configuration
+@EnableConfigurationProperties({ReplicaDataSourceProperties.class, ReportingDataSourceProperties.class})
+@Conditional(RoutingDataSourceConfig.RoutingEnabledCondition.class)
+public class RoutingDataSourceConfig {
+
+    static class RoutingEnabledCondition extends AnyNestedCondition {
+
+        RoutingEnabledCondition() {
+            super(ConfigurationPhase.REGISTER_BEAN);
+        }
+
+        @ConditionalOnProperty(prefix = "libris.datasource.replica", name = "enabled", havingValue = "true")
+        static class ReplicaEnabled {
+        }
+
+        @ConditionalOnProperty(prefix = "libris.datasource.reporting", name = "enabled", havingValue = "true")
+        static class ReportingEnabled {
+        }
+    }
+
+    @Bean(destroyMethod = "close")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties, Environment environment) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .build();
+        Binder.get(environment).bind("spring.datasource.hikari", Bindable.ofInstance(dataSource));
+        dataSource.setPoolName("libris-primary");
+        return dataSource;
+    }
+
+    @Bean(destroyMethod = "close")
+    @ConditionalOnProperty(prefix = "libris.datasource.replica", name = "enabled", havingValue = "true")
+    public HikariDataSource replicaDataSource(ReplicaDataSourceProperties properties, Environment environment) {
+        HikariDataSource dataSource = DataSourceBuilder.create()
+                .type(HikariDataSource.class)
+                .url(properties.getUrl())
+                .username(properties.getUsername())
+                .password(properties.getPassword())
+                .driverClassName(properties.getDriverClassName())
+                .build();
+        Binder.get(environment).bind("libris.datasource.replica.hikari", Bindable.ofInstance(dataSource));
+        dataSource.setPoolName("libris-replica");
+        dataSource.setReadOnly(true);
+        return dataSource;
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "libris.datasource.replica", name = "enabled", havingValue = "true")
+    public ReplicaLagMonitor replicaLagMonitor(@Qualifier("replicaDataSource") DataSource replica,
+                                               ReplicaDataSourceProperties properties,
+                                               MeterRegistry meterRegistry) {
+        ReplicaLagMonitor monitor = new ReplicaLagMonitor(replica, properties.getLagQuery(), properties.getMaxLag());
+        Gauge.builder("libris.datasource.replica.lag", monitor, ReplicaLagMonitor::getLagSeconds)
+                .description("Replication lag measured on the read replica")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+        Gauge.builder("libris.datasource.replica.usable", monitor, m -> m.isReplicaUsable() ? 1 : 0)
+                .description("1 while read-only transactions are routed to the replica")
+                .register(meterRegistry);
+        return monitor;
+    }
+
+    @Bean(destroyMethod = "close")
+    @ConditionalOnProperty(prefix = "libris.datasource.reporting", name = "enabled", havingValue = "true")
+    public HikariDataSource reportingDataSource(ReportingDataSourceProperties properties,
+                                                DataSourceProperties primary,
+                                                Environment environment) {
+        HikariDataSource dataSource = DataSourceBuilder.create()
+                .type(HikariDataSource.class)
+                .url(orElse(properties.getUrl(), primary.determineUrl()))
+                .username(orElse(properties.getUsername(), primary.determineUsername()))
+                .password(orElse(properties.getPassword(), primary.determinePassword()))
+                .driverClassName(orElse(properties.getDriverClassName(), primary.determineDriverClassName()))
+                .build();
+        Binder.get(environment).bind("libris.datasource.reporting.hikari", Bindable.ofInstance(dataSource));
+        dataSource.setPoolName("libris-reporting");
+        return dataSource;
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("primaryDataSource") DataSource primary,
+                                 @Qualifier("replicaDataSource") ObjectProvider<DataSource> replica,
+                                 ObjectProvider<ReplicaLagMonitor> lagMonitor,
+                                 @Qualifier("reportingDataSource") ObjectProvider<DataSource> reporting) {
+        return new LazyConnectionDataSourceProxy(new ReadReplicaRoutingDataSource(
+                primary, replica.getIfAvailable(), lagMonitor.getIfAvailable(), reporting.getIfAvailable()));
+    }
+
+    private static String orElse(String value, String fallback) {
+        return value != null ? value : fallback;
+    }
+}
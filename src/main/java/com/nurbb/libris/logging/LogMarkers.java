@@ -0,0 +1,20 @@
+package com.nurbb.libris.logging;
+
+import org.slf4j.Marker;
+import org.slf4j.MarkerFactory;
+
+/**
+ * Markers used to classify log events so the logging configuration can treat them differently.
+ */
+
+public final class LogMarkers {
+
+    /**
+     * Per-request business events (borrow, return, search miss). Sampled by SamplingTurboFilter
+     * in the performance profile, logged in full otherwise.
+     */
+    public static final Marker HIGH_FREQUENCY = MarkerFactory.getMarker("HIGH_FREQUENCY");
+
+    private LogMarkers() {
+    }
+}
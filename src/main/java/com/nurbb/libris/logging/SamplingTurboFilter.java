@@ -0,0 +1,44 @@
+package com.nurbb.libris.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+import org.slf4j.Marker;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lets through one in every sampleRate events carrying LogMarkers.HIGH_FREQUENCY, counted per logger.
+ * WARN and above are never sampled. Only events that would otherwise be logged are counted:
+ * isXxxEnabled checks (no format) and events below the logger's level leave the counter alone.
+ * Declared in logback-spring.xml for the performance profile.
+ */
+
+public class SamplingTurboFilter extends TurboFilter {
+
+    private final ConcurrentMap<String, AtomicLong> counters = new ConcurrentHashMap<>();
+    private int sampleRate = 100;
+
+    @Override
+    public FilterReply decide(Marker marker, Logger logger, Level level, String format, Object[] params, Throwable t) {
+        if (marker == null || format == null || sampleRate <= 1 || level.isGreaterOrEqual(Level.WARN)
+                || !level.isGreaterOrEqual(logger.getEffectiveLevel()) || !marker.contains(LogMarkers.HIGH_FREQUENCY)) {
+            return FilterReply.NEUTRAL;
+        }
+
+        long seen = counters.computeIfAbsent(logger.getName(), name -> new AtomicLong())
+                .getAndIncrement();
+        return seen % sampleRate == 0 ? FilterReply.NEUTRAL : FilterReply.DENY;
+    }
+
+    public void setSampleRate(int sampleRate) {
+        this.sampleRate = sampleRate;
+    }
+
+    public int getSampleRate() {
+        return sampleRate;
+    }
+}
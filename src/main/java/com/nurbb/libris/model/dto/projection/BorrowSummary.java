@@ -0,0 +1,22 @@
+package com.nurbb.libris.model.dto.projection;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Read-only view of a borrow record carrying only the columns needed to build a BorrowResponse.
+ * Selected directly by JPQL constructor expressions, so no Book or User entity is materialized.
+ */
+
+public record BorrowSummary(
+        UUID id,
+        String bookTitle,
+        String userFullName,
+        LocalDate borrowDate,
+        LocalDate dueDate,
+        LocalDate returnDate,
+        Boolean returned,
+        LocalDateTime createdDate,
+        LocalDateTime updatedDate
+) {}
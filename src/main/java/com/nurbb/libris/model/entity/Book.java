@@ -3,6 +3,10 @@ package com.nurbb.libris.model.entity;
 import com.nurbb.libris.model.entity.valueobject.Genre;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
 
 import java.time.LocalDate;
 
@@ -13,15 +17,18 @@ import java.time.LocalDate;
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
+@NaturalIdCache
 public class Book extends BaseEntity {
 
     @Column(name = "title", nullable = false)
     private String title;
 
-    @ManyToOne(optional = false, fetch = FetchType.EAGER)
+    @ManyToOne(optional = false, fetch = FetchType.LAZY)
     @JoinColumn(name = "author_id", nullable = false)
     private Author author;
 
+    @NaturalId(mutable = true)
     @Column(name = "isbn", nullable = false, unique = true)
     private String isbn;
 
@@ -0,0 +1,46 @@
+package com.nurbb.libris.model.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Cold copy of a returned borrow, moved out of the borrows table by the archival job.
+ * Keeps the original id and audit timestamps.
+ */
+
+@EqualsAndHashCode(callSuper = true)
+@Entity
+@Table(name = "borrows_archive")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+
+public class BorrowArchive extends BaseEntity {
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "book_id")
+    private Book book;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id")
+    private User user;
+
+    @Column(name = "borrow_date", nullable = false)
+    private LocalDate borrowDate;
+
+    @Column(name = "due_date")
+    private LocalDate dueDate;
+
+    @Column(name = "return_date")
+    private LocalDate returnDate;
+
+    @Column(nullable = false)
+    private Boolean returned;
+
+    @Column(name = "archived_at", nullable = false)
+    private LocalDateTime archivedAt;
+
+}
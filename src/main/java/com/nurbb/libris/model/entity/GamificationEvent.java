@@ -0,0 +1,41 @@
+package com.nurbb.libris.model.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * Outbox entry for a return whose score, streak, level and reading stats have not been applied yet.
+ * Written in the return transaction and deleted once the gamification pipeline has applied it.
+ */
+
+@EqualsAndHashCode(callSuper = true)
+@Entity
+@Table(name = "gamification_events", indexes = @Index(name = "idx_gamification_events_user", columnList = "user_id, created_at"))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+
+public class GamificationEvent extends BaseEntity {
+
+    @Column(name = "user_id", nullable = false)
+    private UUID userId;
+
+    @Column(name = "borrow_id", nullable = false)
+    private UUID borrowId;
+
+    @Column(name = "borrow_date", nullable = false)
+    private LocalDate borrowDate;
+
+    @Column(name = "due_date", nullable = false)
+    private LocalDate dueDate;
+
+    @Column(name = "return_date", nullable = false)
+    private LocalDate returnDate;
+
+    @Column(name = "page_count", nullable = false)
+    private int pageCount;
+}
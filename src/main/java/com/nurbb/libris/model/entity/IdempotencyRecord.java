@@ -0,0 +1,42 @@
+package com.nurbb.libris.model.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Stored outcome of a request sent with an Idempotency-Key header.
+ * Keys are scoped per authenticated principal.
+ */
+
+@EqualsAndHashCode(callSuper = true)
+@Entity
+@Table(name = "idempotency_records",
+        uniqueConstraints = @UniqueConstraint(name = "uk_idempotency_principal_key",
+                columnNames = { "principal", "idempotency_key" }))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+
+public class IdempotencyRecord extends BaseEntity {
+
+    @Column(nullable = false)
+    private String principal;
+
+    @Column(name = "idempotency_key", nullable = false)
+    private String idempotencyKey;
+
+    @Column(nullable = false, length = 50)
+    private String operation;
+
+    @Column(name = "request_hash", nullable = false, length = 64)
+    private String requestHash;
+
+    @Column(name = "response_body", length = 4000)
+    private String responseBody;
+
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+}
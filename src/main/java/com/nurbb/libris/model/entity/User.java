@@ -6,6 +6,7 @@ import jakarta.persistence.*;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.Size;
 import lombok.*;
+import org.hibernate.annotations.ColumnDefault;
 
 @EqualsAndHashCode(callSuper = true)
 @Entity
@@ -56,6 +57,19 @@ public class User extends BaseEntity {
     @Column(nullable = false)
     private int totalReadPages = 0;
 
+    /**
+     * Ledger of currently borrowed (not returned) books, maintained on borrow/return
+     * so quota checks do not have to scan the user's borrow history.
+     */
+
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private int activeBorrowCount = 0;
+
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private int activeBorrowDays = 0;
+
     @Column(nullable = false)
     private Boolean deleted = false;
 }
@@ -1,5 +1,6 @@
 package com.nurbb.libris.model.mapper;
 
+import com.nurbb.libris.model.dto.projection.BorrowSummary;
 import com.nurbb.libris.model.dto.response.BorrowResponse;
 import com.nurbb.libris.model.entity.Borrow;
 import org.mapstruct.Mapper;
@@ -13,4 +14,8 @@ public interface BorrowMapper {
     @Mapping(target = "createdAt", expression = "java(borrow.getCreatedDate().toString())")
     @Mapping(target = "updatedAt", expression = "java(borrow.getUpdatedDate().toString())")
     BorrowResponse toResponse(Borrow borrow);
+
+    @Mapping(target = "createdAt", expression = "java(summary.createdDate().toString())")
+    @Mapping(target = "updatedAt", expression = "java(summary.updatedDate().toString())")
+    BorrowResponse fromSummary(BorrowSummary summary);
 }
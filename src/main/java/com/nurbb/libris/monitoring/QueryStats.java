@@ -0,0 +1,69 @@
+package com.nurbb.libris.monitoring;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Per-thread accumulator of JDBC activity: statements executed, time spent in the driver and rows read.
+ * Between {@link #startCapture()} and {@link #stopCapture()} it also keeps the SQL and bound parameters of
+ * each statement, so tests can inspect the statements Hibernate actually generates.
+ */
+
+@Getter
+public class QueryStats {
+
+    private long statementCount;
+    private long jdbcTimeNanos;
+    private long rowsFetched;
+    @Getter(AccessLevel.NONE)
+    private List<CapturedStatement> captured;
+
+    public record CapturedStatement(String sql, List<Object> parameters) {
+    }
+
+    public void startCapture() {
+        captured = new ArrayList<>();
+    }
+
+    public List<CapturedStatement> stopCapture() {
+        List<CapturedStatement> statements = captured != null ? captured : List.of();
+        captured = null;
+        return statements;
+    }
+
+    boolean isCapturing() {
+        return captured != null;
+    }
+
+    void recordStatement(String sql, List<Object> parameters) {
+        captured.add(new CapturedStatement(sql, parameters));
+    }
+
+    void recordStatements(int count, long elapsedNanos) {
+        statementCount += count;
+        jdbcTimeNanos += elapsedNanos;
+    }
+
+    void recordRow() {
+        rowsFetched++;
+    }
+
+    public QueryStats copy() {
+        QueryStats copy = new QueryStats();
+        copy.statementCount = statementCount;
+        copy.jdbcTimeNanos = jdbcTimeNanos;
+        copy.rowsFetched = rowsFetched;
+        return copy;
+    }
+
+    public QueryStats minus(QueryStats earlier) {
+        QueryStats delta = new QueryStats();
+        delta.statementCount = statementCount - earlier.statementCount;
+        delta.jdbcTimeNanos = jdbcTimeNanos - earlier.jdbcTimeNanos;
+        delta.rowsFetched = rowsFetched - earlier.rowsFetched;
+        return delta;
+    }
+}
@@ -0,0 +1,65 @@
+package com.nurbb.libris.monitoring;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Attributes JDBC activity to individual service methods by diffing the thread's QueryStats around each call.
+ * Figures are inclusive: a service calling another service counts the nested statements too.
+ * The rows summary is only recorded while rows are counted (libris.query-stats.rows).
+ */
+
+@Aspect
+@Component
+@ConditionalOnProperty(prefix = "libris.query-stats", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class QueryStatsAspect {
+
+    private final MeterRegistry meterRegistry;
+    private final boolean rows;
+
+    public QueryStatsAspect(MeterRegistry meterRegistry, @Value("${libris.query-stats.rows:false}") boolean rows) {
+        this.meterRegistry = meterRegistry;
+        this.rows = rows;
+    }
+
+    @Around("execution(public * com.nurbb.libris.service..*(..))")
+    public Object measure(ProceedingJoinPoint joinPoint) throws Throwable {
+        QueryStats before = QueryStatsHolder.current().copy();
+        try {
+            return joinPoint.proceed();
+        } finally {
+            QueryStats delta = QueryStatsHolder.current().minus(before);
+            String className = joinPoint.getSignature().getDeclaringType().getSimpleName();
+            String method = joinPoint.getSignature().getName();
+
+            DistributionSummary.builder("libris.jdbc.service.statements")
+                    .description("JDBC statements executed per service method call")
+                    .tags("class", className, "method", method)
+                    .register(meterRegistry)
+                    .record(delta.getStatementCount());
+
+            if (rows) {
+                DistributionSummary.builder("libris.jdbc.service.rows")
+                        .description("Rows read from JDBC result sets per service method call")
+                        .tags("class", className, "method", method)
+                        .register(meterRegistry)
+                        .record(delta.getRowsFetched());
+            }
+
+            Timer.builder("libris.jdbc.service.time")
+                    .description("Time spent executing JDBC statements per service method call")
+                    .tags("class", className, "method", method)
+                    .register(meterRegistry)
+                    .record(delta.getJdbcTimeNanos(), TimeUnit.NANOSECONDS);
+        }
+    }
+}
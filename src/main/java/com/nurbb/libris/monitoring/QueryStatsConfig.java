@@ -0,0 +1,46 @@
+package com.nurbb.libris.monitoring;
+
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import javax.sql.DataSource;
+
+/**
+ * Wraps the application DataSource with a datasource-proxy so every statement is counted and timed.
+ * Only physical pools are wrapped; routing and delegating DataSources are skipped so statements are not counted twice.
+ * Counting fetched rows means proxying every ResultSet and routing each JDBC call through a method listener, so
+ * it is only done with libris.query-stats.rows=true (test profile). Disable with libris.query-stats.enabled=false.
+ */
+
+@Configuration
+@ConditionalOnProperty(prefix = "libris.query-stats", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class QueryStatsConfig {
+
+    @Bean
+    public static BeanPostProcessor queryStatsDataSourcePostProcessor(Environment environment) {
+        boolean rows = environment.getProperty("libris.query-stats.rows", Boolean.class, false);
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof ProxyDataSource)
+                        && !(bean instanceof DelegatingDataSource) && !(bean instanceof AbstractRoutingDataSource)) {
+                    QueryStatsListener listener = new QueryStatsListener();
+                    ProxyDataSourceBuilder builder = ProxyDataSourceBuilder.create(beanName, dataSource)
+                            .listener(listener);
+                    if (rows) {
+                        builder.methodListener(listener).proxyResultSet();
+                    }
+                    return builder.build();
+                }
+                return bean;
+            }
+        };
+    }
+}
@@ -0,0 +1,79 @@
+package com.nurbb.libris.monitoring;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Opens a fresh QueryStats scope per HTTP request and records it as Micrometer metrics tagged by route.
+ * Runs ahead of the security chain so JWT user lookups are attributed to the request as well.
+ * The rows summary is only recorded while rows are counted (libris.query-stats.rows).
+ */
+
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@ConditionalOnProperty(prefix = "libris.query-stats", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class QueryStatsFilter extends OncePerRequestFilter {
+
+    private final MeterRegistry meterRegistry;
+    private final boolean rows;
+
+    public QueryStatsFilter(MeterRegistry meterRegistry, @Value("${libris.query-stats.rows:false}") boolean rows) {
+        this.meterRegistry = meterRegistry;
+        this.rows = rows;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain chain) throws ServletException, IOException {
+
+        QueryStats stats = QueryStatsHolder.reset();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            record(request, stats);
+            QueryStatsHolder.clear();
+        }
+    }
+
+    private void record(HttpServletRequest request, QueryStats stats) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String uri = pattern != null ? pattern.toString() : "UNKNOWN";
+        String method = request.getMethod();
+
+        DistributionSummary.builder("libris.jdbc.request.statements")
+                .description("JDBC statements executed per HTTP request")
+                .tags("method", method, "uri", uri)
+                .register(meterRegistry)
+                .record(stats.getStatementCount());
+
+        if (rows) {
+            DistributionSummary.builder("libris.jdbc.request.rows")
+                    .description("Rows read from JDBC result sets per HTTP request")
+                    .tags("method", method, "uri", uri)
+                    .register(meterRegistry)
+                    .record(stats.getRowsFetched());
+        }
+
+        Timer.builder("libris.jdbc.request.time")
+                .description("Time spent executing JDBC statements per HTTP request")
+                .tags("method", method, "uri", uri)
+                .register(meterRegistry)
+                .record(stats.getJdbcTimeNanos(), TimeUnit.NANOSECONDS);
+    }
+}
@@ -0,0 +1,28 @@
+package com.nurbb.libris.monitoring;
+
+/**
+ * Thread-bound access to the QueryStats of the request currently being served.
+ * Statements executed outside of a request (startup, scheduled jobs) land in a per-thread fallback instance.
+ */
+
+public final class QueryStatsHolder {
+
+    private static final ThreadLocal<QueryStats> CURRENT = ThreadLocal.withInitial(QueryStats::new);
+
+    private QueryStatsHolder() {
+    }
+
+    public static QueryStats current() {
+        return CURRENT.get();
+    }
+
+    static QueryStats reset() {
+        QueryStats fresh = new QueryStats();
+        CURRENT.set(fresh);
+        return fresh;
+    }
+
+    static void clear() {
+        CURRENT.remove();
+    }
+}
@@ -0,0 +1,72 @@
+package com.nurbb.libris.monitoring;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.MethodExecutionContext;
+import net.ttddyy.dsproxy.listener.MethodExecutionListener;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.proxy.ParameterSetOperation;
+
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * datasource-proxy listener feeding statement count, driver time and fetched rows into QueryStatsHolder.
+ * Rows are only seen when it is also registered as method listener on proxied ResultSets (libris.query-stats.rows).
+ */
+
+class QueryStatsListener implements QueryExecutionListener, MethodExecutionListener {
+
+    private static final String START_NANOS = "libris.queryStartNanos";
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        execInfo.addCustomValue(START_NANOS, System.nanoTime());
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        Long start = execInfo.getCustomValue(START_NANOS, Long.class);
+        long elapsed = start != null ? System.nanoTime() - start : 0;
+        QueryStats stats = QueryStatsHolder.current();
+        stats.recordStatements(Math.max(1, queryInfoList.size()), elapsed);
+        if (stats.isCapturing()) {
+            queryInfoList.forEach(queryInfo -> stats.recordStatement(queryInfo.getQuery(), parameters(queryInfo)));
+        }
+    }
+
+    /**
+     * Positional parameters of the first parameter set (the only one unless the statement was batched).
+     */
+
+    private static List<Object> parameters(QueryInfo queryInfo) {
+        if (queryInfo.getParametersList().isEmpty()) {
+            return List.of();
+        }
+        List<ParameterSetOperation> operations = new ArrayList<>(queryInfo.getParametersList().get(0));
+        operations.removeIf(operation -> !(operation.getArgs()[0] instanceof Integer)
+                || ParameterSetOperation.isRegisterOutParameterOperation(operation));
+        operations.sort(Comparator.comparingInt(operation -> (Integer) operation.getArgs()[0]));
+        List<Object> parameters = new ArrayList<>(operations.size());
+        for (ParameterSetOperation operation : operations) {
+            parameters.add(ParameterSetOperation.isSetNullParameterOperation(operation) ? null : operation.getArgs()[1]);
+        }
+        return parameters;
+    }
+
+    @Override
+    public void beforeMethod(MethodExecutionContext executionContext) {
+        // nothing to do before
+    }
+
+    @Override
+    public void afterMethod(MethodExecutionContext executionContext) {
+        if (executionContext.getTarget() instanceof ResultSet
+                && "next".equals(executionContext.getMethod().getName())
+                && Boolean.TRUE.equals(executionContext.getResult())) {
+            QueryStatsHolder.current().recordRow();
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.nurbb.libris.monitoring;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Exposes the request's JDBC figures as response headers just before the body is written.
+ * Meant for non-production profiles only; enable with libris.query-stats.response-header=true.
+ * X-Query-Rows is only sent while rows are counted (libris.query-stats.rows).
+ */
+
+@ControllerAdvice
+@ConditionalOnProperty(prefix = "libris.query-stats", name = "response-header", havingValue = "true")
+public class QueryStatsResponseAdvice implements ResponseBodyAdvice<Object> {
+
+    public static final String QUERY_COUNT_HEADER = "X-Query-Count";
+    public static final String QUERY_TIME_HEADER = "X-Query-Time-Ms";
+    public static final String QUERY_ROWS_HEADER = "X-Query-Rows";
+
+    private final boolean rows;
+
+    public QueryStatsResponseAdvice(@Value("${libris.query-stats.rows:false}") boolean rows) {
+        this.rows = rows;
+    }
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return true;
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body,
+                                  MethodParameter returnType,
+                                  MediaType selectedContentType,
+                                  Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                  ServerHttpRequest request,
+                                  ServerHttpResponse response) {
+
+        QueryStats stats = QueryStatsHolder.current();
+        response.getHeaders().set(QUERY_COUNT_HEADER, String.valueOf(stats.getStatementCount()));
+        response.getHeaders().set(QUERY_TIME_HEADER,
+                String.valueOf(TimeUnit.NANOSECONDS.toMillis(stats.getJdbcTimeNanos())));
+        if (rows) {
+            response.getHeaders().set(QUERY_ROWS_HEADER, String.valueOf(stats.getRowsFetched()));
+        }
+        return body;
+    }
+}
@@ -1,6 +1,9 @@
 package com.nurbb.libris.reactive;
 
 import com.nurbb.libris.model.dto.response.BookAvailabilityResponse;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.stereotype.Component;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Sinks;
@@ -9,13 +12,27 @@ import reactor.core.publisher.Sinks;
 public class BookAvailabilityPublisher {
 
     private final Sinks.Many<BookAvailabilityResponse> sink = Sinks.many().multicast().onBackpressureBuffer();
+    private final MeterRegistry meterRegistry;
+
+    public BookAvailabilityPublisher(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+        Gauge.builder("libris.availability.subscribers", sink, Sinks.Many::currentSubscriberCount)
+                .description("Active SSE subscribers of the book availability stream")
+                .register(meterRegistry);
+    }
 
     public void publish(BookAvailabilityResponse response) {
-        sink.tryEmitNext(response);
+        Sinks.EmitResult result = sink.tryEmitNext(response);
+        if (result.isFailure()) {
+            Counter.builder("libris.availability.emit.failures")
+                    .description("Availability events that could not be emitted to subscribers")
+                    .tag("result", result.name())
+                    .register(meterRegistry)
+                    .increment();
+        }
     }
 
     public Flux<BookAvailabilityResponse> getStream() {
         return sink.asFlux();
     }
 }
-
@@ -0,0 +1,15 @@
+package com.nurbb.libris.repository;
+
+import com.nurbb.libris.model.entity.Author;
+
+import java.util.Optional;
+
+/**
+ * Exact-name author lookup through Hibernate's natural-id API, which is answered from the
+ * second-level cache when the author was loaded before.
+ */
+
+public interface AuthorNaturalIdRepository {
+
+    Optional<Author> findByExactName(String name);
+}
@@ -0,0 +1,21 @@
+package com.nurbb.libris.repository;
+
+import com.nurbb.libris.model.entity.Author;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.Session;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Optional;
+
+class AuthorNaturalIdRepositoryImpl implements AuthorNaturalIdRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<Author> findByExactName(String name) {
+        return entityManager.unwrap(Session.class).bySimpleNaturalId(Author.class).loadOptional(name);
+    }
+}
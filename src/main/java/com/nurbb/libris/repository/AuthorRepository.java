@@ -1,16 +1,34 @@
 package com.nurbb.libris.repository;
 
 import com.nurbb.libris.model.entity.Author;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
 @Repository
-public interface AuthorRepository extends JpaRepository<Author, UUID> {
+public interface AuthorRepository extends JpaRepository<Author, UUID>, AuthorNaturalIdRepository {
 
-    Optional<Author> findByNameIgnoreCase(String name);
+    // Explicit lower() so both lookups match the unique index on lower(authors.name)
 
-    boolean existsByNameIgnoreCase(String name);
+    @Query("select a from Author a where lower(a.name) = lower(:name)")
+    Optional<Author> findByNameIgnoreCase(@Param("name") String name);
+
+    @Query("select count(a) > 0 from Author a where lower(a.name) = lower(:name)")
+    boolean existsByNameIgnoreCase(@Param("name") String name);
+
+    // AuthorResponse lists book titles: fetch them with the authors instead of one select per author
+
+    @EntityGraph(attributePaths = "books")
+    @Query("select a from Author a")
+    List<Author> findAllWithBooks();
+
+    @EntityGraph(attributePaths = "books")
+    @Query("select a from Author a where a.id = :id")
+    Optional<Author> findWithBooksById(@Param("id") UUID id);
 }
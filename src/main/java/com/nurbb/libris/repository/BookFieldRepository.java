@@ -0,0 +1,30 @@
+package com.nurbb.libris.repository;
+
+import com.nurbb.libris.model.entity.Book;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Book list narrowed to the fields a client asked for (?fields=), selected column by column instead of
+ * loading Book and Author entities. Field names are the BookResponse JSON names.
+ */
+
+public interface BookFieldRepository {
+
+    FieldProjection<Book> FIELDS = FieldProjection.of(Book.class)
+            .field("id")
+            .field("title")
+            .field("authorName", "author.name")
+            .field("isbn")
+            .field("publishedDate")
+            .field("genre")
+            .field("count")
+            .field("pageCount")
+            .field("available", "isAvailable")
+            .alias("isAvailable", "available")
+            .field("createdAt", "createdDate", Object::toString)
+            .field("updatedAt", "updatedDate", Object::toString);
+
+    List<Map<String, Object>> findAllFields(List<String> fields);
+}
@@ -0,0 +1,20 @@
+package com.nurbb.libris.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Map;
+
+class BookFieldRepositoryImpl implements BookFieldRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> findAllFields(List<String> fields) {
+        return FIELDS.select(entityManager, fields);
+    }
+}
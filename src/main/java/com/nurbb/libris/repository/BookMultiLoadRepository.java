@@ -0,0 +1,21 @@
+package com.nurbb.libris.repository;
+
+import com.nurbb.libris.model.entity.Book;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Batch lookup by id through Hibernate's multi-load API: books (and their authors) already in the
+ * second-level cache are taken from there, and only the missing ids are read, in one IN query per batch.
+ */
+
+public interface BookMultiLoadRepository {
+
+    /**
+     * Books in the order of the given ids, without duplicates; unknown ids are left out.
+     */
+
+    List<Book> findAllByIdCacheFirst(Collection<UUID> ids);
+}
@@ -0,0 +1,47 @@
+package com.nurbb.libris.repository;
+
+import com.nurbb.libris.model.entity.Author;
+import com.nurbb.libris.model.entity.Book;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.CacheMode;
+import org.hibernate.Hibernate;
+import org.hibernate.Session;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
+
+class BookMultiLoadRepositoryImpl implements BookMultiLoadRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<Book> findAllByIdCacheFirst(Collection<UUID> ids) {
+        Session session = entityManager.unwrap(Session.class);
+        List<Book> books = session.byMultipleIds(Book.class)
+                .with(CacheMode.NORMAL)
+                .enableSessionCheck(true)
+                .multiLoad(List.copyOf(new LinkedHashSet<>(ids)))
+                .stream()
+                .filter(Objects::nonNull)
+                .toList();
+
+        // Author is lazy: load the ones the cache did not have together instead of one proxy at a time
+        List<UUID> authorIds = books.stream()
+                .map(Book::getAuthor)
+                .filter(author -> !Hibernate.isInitialized(author))
+                .map(Author::getId)
+                .distinct()
+                .toList();
+        if (!authorIds.isEmpty()) {
+            session.byMultipleIds(Author.class).with(CacheMode.NORMAL).enableSessionCheck(true).multiLoad(authorIds);
+        }
+        return books;
+    }
+}
@@ -1,21 +1,43 @@
 package com.nurbb.libris.repository;
 
 import com.nurbb.libris.model.entity.Book;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 @Repository
-public interface BookRepository extends JpaRepository<Book, UUID> {
+public interface BookRepository extends JpaRepository<Book, UUID>, BookFieldRepository, BookMultiLoadRepository {
 
     boolean existsByIsbn(String isbn);
 
+    @EntityGraph(attributePaths = "author")
+    @Override
+    List<Book> findAll();
+
+    @EntityGraph(attributePaths = "author")
+    @Override
+    Optional<Book> findById(UUID id);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select b from Book b where b.id = :id")
+    Optional<Book> findByIdForUpdate(@Param("id") UUID id);
+
+    @EntityGraph(attributePaths = "author")
     Page<Book> findByTitleContainingIgnoreCase(String title, Pageable pageable);
 
+    @EntityGraph(attributePaths = "author")
     Page<Book> findByIsbnContainingIgnoreCase(String isbn, Pageable pageable);
 
+    @EntityGraph(attributePaths = "author")
     Page<Book> findByAuthor_NameContainingIgnoreCase(String name, Pageable pageable);
-}
\ No newline at end of file
+}
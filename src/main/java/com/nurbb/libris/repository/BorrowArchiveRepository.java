@@ -0,0 +1,54 @@
+package com.nurbb.libris.repository;
+
+import com.nurbb.libris.model.dto.projection.BorrowSummary;
+import com.nurbb.libris.model.dto.response.SimpleCount;
+import com.nurbb.libris.model.entity.BorrowArchive;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+public interface BorrowArchiveRepository extends JpaRepository<BorrowArchive, UUID> {
+
+    String SUMMARY_SELECT = "select new com.nurbb.libris.model.dto.projection.BorrowSummary("
+            + "a.id, bk.title, u.fullName, a.borrowDate, a.dueDate, a.returnDate, a.returned, a.createdDate, a.updatedDate) "
+            + "from BorrowArchive a left join a.book bk left join a.user u ";
+
+    @Query(SUMMARY_SELECT + "where u.id = :userId")
+    List<BorrowSummary> findSummariesByUserId(@Param("userId") UUID userId);
+
+    @Query(SUMMARY_SELECT + "where u.email = :email")
+    List<BorrowSummary> findSummariesByUserEmail(@Param("email") String email);
+
+    @Query(SUMMARY_SELECT)
+    List<BorrowSummary> findAllSummaries();
+
+    // Aggregates used by the statistics reports; archived rows are always returned
+
+    @Query("select coalesce(sum(cast((a.returnDate - a.borrowDate) by day as Integer)), 0) from BorrowArchive a "
+            + "where a.returnDate is not null")
+    long sumReturnDays();
+
+    @Query("select count(a) from BorrowArchive a where a.returnDate is not null")
+    long countWithReturnDate();
+
+    @Query("select new com.nurbb.libris.model.dto.response.SimpleCount(bk.title, count(a)) "
+            + "from BorrowArchive a join a.book bk group by bk.title")
+    List<SimpleCount> countByBookTitle();
+
+    /**
+     * Copies the given rows from borrows in one statement, keeping ids and audit columns.
+     */
+
+    @Modifying
+    @Query(value = "insert into borrows_archive "
+            + "(id, book_id, user_id, borrow_date, due_date, return_date, returned, created_at, updated_at, archived_at) "
+            + "select id, book_id, user_id, borrow_date, due_date, return_date, returned, created_at, updated_at, :archivedAt "
+            + "from borrows where id in (:ids)", nativeQuery = true)
+    int copyFromBorrows(@Param("ids") Collection<UUID> ids, @Param("archivedAt") LocalDateTime archivedAt);
+}
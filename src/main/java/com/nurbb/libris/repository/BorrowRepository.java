@@ -1,18 +1,49 @@
 package com.nurbb.libris.repository;
 
+import com.nurbb.libris.model.dto.projection.BorrowSummary;
 import com.nurbb.libris.model.entity.Book;
 import com.nurbb.libris.model.entity.Borrow;
 import com.nurbb.libris.model.entity.User;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.LockOptions;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 public interface BorrowRepository extends JpaRepository<Borrow, UUID> {
 
+    String SUMMARY_SELECT = "select new com.nurbb.libris.model.dto.projection.BorrowSummary("
+            + "b.id, bk.title, u.fullName, b.borrowDate, b.dueDate, b.returnDate, b.returned, b.createdDate, b.updatedDate) "
+            + "from Borrow b left join b.book bk left join b.user u ";
+
     List<Borrow> findByUser(User user);
 
+    @EntityGraph(attributePaths = { "book", "user" })
+    @Override
+    List<Borrow> findAll();
+
+    @EntityGraph(attributePaths = { "book", "user" })
+    @Override
+    Optional<Borrow> findById(UUID id);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select b from Borrow b where b.id = :id")
+    Optional<Borrow> findByIdForUpdate(@Param("id") UUID id);
+
+    @EntityGraph(attributePaths = { "book", "user" })
     List<Borrow> findByReturnedFalseAndDueDateBefore(LocalDate date);
 
     long countByBookIdAndReturnedFalse(UUID bookId);
@@ -21,6 +52,30 @@ public interface BorrowRepository extends JpaRepository<Borrow, UUID> {
 
     boolean existsByBookAndUserAndReturnedFalse(Book book, User user);
 
-    List<Borrow> findByUserEmail(String email);
+    // Projections used by the listing endpoints; one statement each, no entity hydration.
+
+    @Query(SUMMARY_SELECT + "where u.id = :userId")
+    List<BorrowSummary> findSummariesByUserId(@Param("userId") UUID userId);
+
+    @Query(SUMMARY_SELECT + "where u.email = :email")
+    List<BorrowSummary> findSummariesByUserEmail(@Param("email") String email);
+
+    @Query(SUMMARY_SELECT)
+    List<BorrowSummary> findAllSummaries();
+
+    @Query(SUMMARY_SELECT + "where b.returned = false and b.dueDate < :date")
+    List<BorrowSummary> findOverdueSummaries(@Param("date") LocalDate date);
+
+    // Archival: returned borrows older than the retention window move to borrows_archive.
+    // The selected rows stay locked until the batch commits; rows locked by another node's run are skipped.
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = AvailableSettings.JAKARTA_LOCK_TIMEOUT, value = "" + LockOptions.SKIP_LOCKED))
+    @Query("select b.id from Borrow b where b.returned = true and b.returnDate < :cutoff order by b.returnDate")
+    List<UUID> findArchivableIds(@Param("cutoff") LocalDate cutoff, Pageable pageable);
+
+    @Modifying
+    @Query("delete from Borrow b where b.id in :ids")
+    int deleteAllByIdIn(@Param("ids") Collection<UUID> ids);
 
 }
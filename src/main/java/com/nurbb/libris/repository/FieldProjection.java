@@ -0,0 +1,130 @@
+package com.nurbb.libris.repository;
+
+import com.nurbb.libris.exception.InvalidRequestException;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.From;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * Sparse fieldsets (?fields=id,title) for list endpoints: maps response field names to entity attribute paths
+ * and selects only the requested columns with a Criteria tuple query, joining an association only when one of
+ * its attributes is asked for. Rows come back as maps keyed by the response field names, in the order the
+ * fields are declared here, so they serialize like the full response without the fields left out.
+ */
+
+public final class FieldProjection<E> {
+
+    private final Class<E> entityType;
+    private final Map<String, Field> fields = new LinkedHashMap<>();
+    private final Map<String, String> aliases = new HashMap<>();
+
+    private record Field(String path, Function<Object, Object> converter) {}
+
+    private FieldProjection(Class<E> entityType) {
+        this.entityType = entityType;
+    }
+
+    public static <E> FieldProjection<E> of(Class<E> entityType) {
+        return new FieldProjection<>(entityType);
+    }
+
+    public FieldProjection<E> field(String name) {
+        return field(name, name);
+    }
+
+    /**
+     * @param path attribute path on the entity; one dot means an inner join, e.g. {@code author.name}
+     */
+
+    public FieldProjection<E> field(String name, String path) {
+        return field(name, path, Function.identity());
+    }
+
+    public FieldProjection<E> field(String name, String path, Function<Object, Object> converter) {
+        fields.put(name, new Field(path, converter));
+        return this;
+    }
+
+    public FieldProjection<E> alias(String alias, String name) {
+        aliases.put(alias, name);
+        return this;
+    }
+
+    /**
+     * Requested field names in declaration order, without duplicates.
+     *
+     * @throws InvalidRequestException when nothing or an unknown field is requested
+     */
+
+    public List<String> resolve(Collection<String> requested) {
+        Set<String> wanted = new HashSet<>();
+        List<String> unknown = new ArrayList<>();
+        for (String field : requested) {
+            String name = aliases.getOrDefault(field.trim(), field.trim());
+            if (fields.containsKey(name)) {
+                wanted.add(name);
+            } else {
+                unknown.add(field);
+            }
+        }
+        if (!unknown.isEmpty() || wanted.isEmpty()) {
+            throw new InvalidRequestException("Unknown fields " + unknown + ", expected some of " + fields.keySet());
+        }
+        return fields.keySet().stream().filter(wanted::contains).toList();
+    }
+
+    public List<Map<String, Object>> select(EntityManager entityManager, List<String> names) {
+        return select(entityManager, names, (cb, root) -> cb.conjunction());
+    }
+
+    public List<Map<String, Object>> select(EntityManager entityManager, List<String> names,
+                                            BiFunction<CriteriaBuilder, Root<E>, Predicate> where) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<E> root = query.from(entityType);
+
+        Map<String, From<?, ?>> joins = new HashMap<>();
+        List<Selection<?>> selections = new ArrayList<>();
+        for (String name : names) {
+            selections.add(path(root, joins, fields.get(name).path()).alias(name));
+        }
+        query.multiselect(selections).where(where.apply(cb, root));
+
+        List<Map<String, Object>> rows = new ArrayList<>();
+        for (Tuple tuple : entityManager.createQuery(query).getResultList()) {
+            Map<String, Object> row = new LinkedHashMap<>();
+            for (String name : names) {
+                Object value = tuple.get(name);
+                row.put(name, value == null ? null : fields.get(name).converter().apply(value));
+            }
+            rows.add(row);
+        }
+        return rows;
+    }
+
+    private static Path<?> path(Root<?> root, Map<String, From<?, ?>> joins, String path) {
+        int dot = path.indexOf('.');
+        if (dot < 0) {
+            return root.get(path);
+        }
+        String association = path.substring(0, dot);
+        return joins.computeIfAbsent(association, root::join).get(path.substring(dot + 1));
+    }
+}
@@ -0,0 +1,17 @@
+package com.nurbb.libris.repository;
+
+import com.nurbb.libris.model.entity.GamificationEvent;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+
+import java.util.List;
+import java.util.UUID;
+
+public interface GamificationEventRepository extends JpaRepository<GamificationEvent, UUID> {
+
+    List<GamificationEvent> findByUserIdOrderByCreatedDateAsc(UUID userId, Pageable pageable);
+
+    @Query("select distinct e.userId from GamificationEvent e")
+    List<UUID> findPendingUserIds();
+}
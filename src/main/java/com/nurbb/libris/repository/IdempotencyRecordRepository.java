@@ -0,0 +1,24 @@
+package com.nurbb.libris.repository;
+
+import com.nurbb.libris.model.entity.IdempotencyRecord;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.UUID;
+
+public interface IdempotencyRecordRepository extends JpaRepository<IdempotencyRecord, UUID> {
+
+    Optional<IdempotencyRecord> findByPrincipalAndIdempotencyKey(String principal, String idempotencyKey);
+
+    @Modifying
+    @Query("delete from IdempotencyRecord r where r.principal = :principal and r.idempotencyKey = :key and r.expiresAt < :now")
+    int deleteExpired(@Param("principal") String principal, @Param("key") String key, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("delete from IdempotencyRecord r where r.expiresAt < :now")
+    int deleteAllExpired(@Param("now") LocalDateTime now);
+}
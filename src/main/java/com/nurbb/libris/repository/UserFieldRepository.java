@@ -0,0 +1,35 @@
+package com.nurbb.libris.repository;
+
+import com.nurbb.libris.model.entity.User;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * User list narrowed to the fields a client asked for (?fields=), selected column by column instead of
+ * loading User entities. Field names are the UserResponse JSON names.
+ */
+
+public interface UserFieldRepository {
+
+    FieldProjection<User> FIELDS = FieldProjection.of(User.class)
+            .field("id")
+            .field("fullName")
+            .field("email")
+            .field("phone")
+            .field("role")
+            .field("score")
+            .field("level")
+            .field("totalPagesRead", "totalReadPages")
+            .field("totalReadingDays")
+            .field("totalReturnedBooks")
+            .field("totalLateReturns")
+            .field("currentStreakTimelyReturns", "streakTimelyReturns")
+            .field("deleted")
+            .field("createdAt", "createdDate", Object::toString)
+            .field("updatedAt", "updatedDate", Object::toString);
+
+    List<Map<String, Object>> findAllFields(List<String> fields);
+
+    List<Map<String, Object>> findFieldsByEmail(List<String> fields, String email);
+}
@@ -0,0 +1,26 @@
+package com.nurbb.libris.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Map;
+
+class UserFieldRepositoryImpl implements UserFieldRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> findAllFields(List<String> fields) {
+        return FIELDS.select(entityManager, fields);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> findFieldsByEmail(List<String> fields, String email) {
+        return FIELDS.select(entityManager, fields, (cb, user) -> cb.equal(user.get("email"), email));
+    }
+}
@@ -1,17 +1,49 @@
 package com.nurbb.libris.repository;
 
 import com.nurbb.libris.model.entity.User;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.Optional;
 import java.util.UUID;
 
 @Repository
-public interface UserRepository extends JpaRepository<User, UUID> {
+public interface UserRepository extends JpaRepository<User, UUID>, UserFieldRepository {
+
+    String ACTIVE_BORROW_COUNT = "(select cast(count(b) as Integer) from Borrow b where b.user = u and b.returned = false)";
+
+    String ACTIVE_BORROW_DAYS = "(select cast(coalesce(sum(cast((b.dueDate - b.borrowDate) by day as Integer)), 0) as Integer) "
+            + "from Borrow b where b.user = u and b.returned = false)";
 
     Optional<User> findByEmail(String email);
 
     boolean existsByEmail(String email);
 
+    // Row locks (SELECT ... FOR UPDATE) that serialize borrow/return per user.
+    // Lock order across the service layer is borrow -> user -> book.
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select u from User u where u.email = :email")
+    Optional<User> findByEmailForUpdate(@Param("email") String email);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select u from User u where u.id = :id")
+    Optional<User> findByIdForUpdate(@Param("id") UUID id);
+
+    /**
+     * Recomputes every user's active-borrow ledger from the borrows table.
+     * Returns the number of users whose ledger changed. Takes no per-user row locks,
+     * so it must not run while borrows and returns are being served.
+     */
+
+    @Modifying
+    @Query("update User u set u.activeBorrowCount = " + ACTIVE_BORROW_COUNT + ", u.activeBorrowDays = " + ACTIVE_BORROW_DAYS
+            + " where u.activeBorrowCount <> " + ACTIVE_BORROW_COUNT + " or u.activeBorrowDays <> " + ACTIVE_BORROW_DAYS)
+    int reconcileActiveBorrowLedger();
+
 }
@@ -1,5 +1,7 @@
 package com.nurbb.libris.security;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -20,10 +22,12 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtUtil jwtUtil;
     private final UserDetailsService userDetailsService;
+    private final MeterRegistry meterRegistry;
 
-    public JwtAuthenticationFilter(JwtUtil jwtUtil, UserDetailsService userDetailsService) {
+    public JwtAuthenticationFilter(JwtUtil jwtUtil, UserDetailsService userDetailsService, MeterRegistry meterRegistry) {
         this.jwtUtil = jwtUtil;
         this.userDetailsService = userDetailsService;
+        this.meterRegistry = meterRegistry;
     }
 
     @Override
@@ -41,14 +45,18 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
         if (authHeader != null && authHeader.toLowerCase().startsWith("bearer ")) {
             String token = authHeader.replaceFirst("(?i)^Bearer ", "").trim();
+            Timer.Sample sample = Timer.start(meterRegistry);
+            String outcome = "skipped";
 
             try {
                 String email = jwtUtil.extractUsername(token);
 
                 if (email != null && SecurityContextHolder.getContext().getAuthentication() == null) {
                     UserDetails userDetails = userDetailsService.loadUserByUsername(email);
+                    outcome = "invalid";
 
                     if (jwtUtil.validateToken(token, userDetails)) {
+                        outcome = "valid";
                         String role = jwtUtil.extractRole(token);
                         var authorities = List.of(new SimpleGrantedAuthority("ROLE_" + role));
 
@@ -61,7 +69,12 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
                 }
 
             } catch (Exception e) {
-                // Optional: log error
+                outcome = "error";
+            } finally {
+                sample.stop(Timer.builder("libris.jwt.validation")
+                        .description("Bearer token parsing, user lookup and validation")
+                        .tag("outcome", outcome)
+                        .register(meterRegistry));
             }
         }
 
@@ -1,5 +1,6 @@
 package com.nurbb.libris.service;
 
+import com.nurbb.libris.model.dto.response.AuthorResponse;
 import com.nurbb.libris.model.entity.Author;
 
 import java.util.List;
@@ -10,9 +11,9 @@ public interface AuthorService
 {
     Author createAuthor(String name);
 
-    List<Author> getAllAuthors();
+    List<AuthorResponse> getAllAuthors();
 
-    Optional<Author> getAuthorById(UUID id);
+    Optional<AuthorResponse> getAuthorById(UUID id);
 
     Optional<Author> getAuthorByName(String name);
 
@@ -6,7 +6,9 @@ import com.nurbb.libris.model.dto.response.BookResponse;
 import org.springframework.data.domain.Page;
 import org.springframework.stereotype.Service;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 @Service
@@ -18,6 +20,26 @@ public interface BookService {
 
     List<BookResponse> getAllBooks();
 
+    /**
+     * Book list with only the given BookResponse fields, in BookResponse order.
+     */
+
+    List<Map<String, Object>> getAllBooks(Collection<String> fields);
+
+    /**
+     * The canonical names for a ?fields= value: trimmed, aliases replaced, duplicates dropped, in BookResponse order.
+     *
+     * @throws com.nurbb.libris.exception.InvalidRequestException when nothing or an unknown field is requested
+     */
+
+    List<String> resolveFields(Collection<String> fields);
+
+    /**
+     * Books with the given ids in request order, unknown ids left out. Cached books are not read again.
+     */
+
+    List<BookResponse> getBooksByIds(Collection<UUID> ids);
+
     Page<BookResponse> searchBooks(String query, int page, int size);
 
     BookResponse updateBook(UUID id, BookRequest request);
@@ -0,0 +1,9 @@
+package com.nurbb.libris.service;
+
+import java.time.LocalDate;
+
+public interface BorrowArchiveService {
+
+    int archiveReturnedBefore(LocalDate cutoff);
+
+}
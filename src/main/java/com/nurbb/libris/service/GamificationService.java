@@ -0,0 +1,16 @@
+package com.nurbb.libris.service;
+
+import com.nurbb.libris.model.entity.Borrow;
+
+import java.util.List;
+import java.util.UUID;
+
+public interface GamificationService {
+
+    void recordReturn(Borrow borrow);
+
+    int processPending(UUID userId);
+
+    List<UUID> findUsersWithPendingEvents();
+
+}
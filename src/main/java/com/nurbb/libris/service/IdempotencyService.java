@@ -0,0 +1,9 @@
+package com.nurbb.libris.service;
+
+import java.util.function.Supplier;
+
+public interface IdempotencyService {
+
+    <T> T execute(String idempotencyKey, String operation, Object request, Class<T> responseType, Supplier<T> action);
+
+}
@@ -4,7 +4,9 @@ import com.nurbb.libris.model.dto.request.UserRequest;
 import com.nurbb.libris.model.dto.response.UserResponse;
 import com.nurbb.libris.model.dto.response.UserStatisticsResponse;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 public interface UserService {
@@ -15,6 +17,19 @@ public interface UserService {
 
     List<UserResponse> getAllUsers();
 
+    /**
+     * Same users as {@link #getAllUsers()}, with only the given UserResponse fields.
+     */
+
+    List<Map<String, Object>> getAllUsers(Collection<String> fields);
+
+    /**
+     * Users with the given ids in request order, unknown ids left out. Only ids missing from the userById
+     * cache are read, in one query. Patrons only get their own record.
+     */
+
+    List<UserResponse> getUsersByIds(Collection<UUID> ids);
+
     UserResponse updateUser(UUID id, UserRequest request);
 
     UserStatisticsResponse getUserStatistics(UUID userId);
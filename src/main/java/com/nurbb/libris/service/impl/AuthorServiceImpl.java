@@ -1,15 +1,19 @@
 package com.nurbb.libris.service.impl;
 
+import com.nurbb.libris.cache.CatalogVersion;
+import com.nurbb.libris.datasource.PrimaryRead;
 import com.nurbb.libris.exception.InvalidRequestException;
 import com.nurbb.libris.exception.NotFoundException;
+import com.nurbb.libris.model.dto.response.AuthorResponse;
 import com.nurbb.libris.model.entity.Author;
+import com.nurbb.libris.model.mapper.AuthorMapper;
 import com.nurbb.libris.repository.AuthorRepository;
 import com.nurbb.libris.service.AuthorService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.Optional;
@@ -21,6 +25,8 @@ import java.util.UUID;
 public class AuthorServiceImpl implements AuthorService {
 
     private final AuthorRepository authorRepository;
+    private final AuthorMapper authorMapper;
+    private final CatalogVersion catalogVersion;
 
     @Override
     public Author createAuthor(String name) {
@@ -38,19 +44,28 @@ public class AuthorServiceImpl implements AuthorService {
         Author author = new Author();
         author.setName(trimmedName);
         log.info("Author '{}' created successfully.", trimmedName);
-        return authorRepository.save(author);
+        Author saved = authorRepository.save(author);
+        catalogVersion.changed();
+        return saved;
     }
 
-    @Cacheable(value = "authorList")
+    // Keyed by catalogue version: a load that began before a change stores under the old version
+    @Cacheable(value = "authorList", key = "@catalogVersion.etag()")
     @Override
-    public List<Author> getAllAuthors() {
-        return authorRepository.findAll();
+    @PrimaryRead
+    @Transactional(readOnly = true)
+    public List<AuthorResponse> getAllAuthors() {
+        return authorRepository.findAllWithBooks().stream()
+                .map(authorMapper::toResponse)
+                .toList();
     }
 
-    @Cacheable(value = "authorById", key = "#id")
+    @Cacheable(value = "authorById", key = "#id.toString() + '@' + @catalogVersion.etag()")
     @Override
-    public Optional<Author> getAuthorById(UUID id) {
-        return authorRepository.findById(id);
+    @PrimaryRead
+    @Transactional(readOnly = true)
+    public Optional<AuthorResponse> getAuthorById(UUID id) {
+        return authorRepository.findWithBooksById(id).map(authorMapper::toResponse);
     }
 
     @Override
@@ -66,19 +81,23 @@ public class AuthorServiceImpl implements AuthorService {
         }
 
         String trimmed = name.trim();
-        return authorRepository.findByNameIgnoreCase(trimmed)
+        // Exact spelling first: a natural-id hit is served from the second-level cache without SQL
+        return authorRepository.findByExactName(trimmed)
+                .or(() -> authorRepository.findByNameIgnoreCase(trimmed))
                 .orElseGet(() -> {
                     Author author = new Author();
                     author.setName(trimmed);
                     log.info("Author '{}' not found. Created new author.", trimmed);
-                    return authorRepository.save(author);
+                    Author saved = authorRepository.save(author);
+                    catalogVersion.changed();
+                    return saved;
                 });
     }
 
-// Deletes the author by ID if they have no assigned books (evicts cache).
+// Deletes the author by ID if they have no assigned books (the catalogue caches are evicted on commit).
 
-    @CacheEvict(value = { "authorList", "authorById" }, key = "#id")
     @Override
+    @Transactional
     public void deleteAuthor(UUID id) {
         Author author = authorRepository.findById(id)
                 .orElseThrow(() -> new NotFoundException("Author not found with id: " + id));
@@ -88,6 +107,7 @@ public class AuthorServiceImpl implements AuthorService {
         }
 
         authorRepository.delete(author);
+        catalogVersion.changed();
         log.info("Author with ID '{}' and name '{}' has been deleted.", author.getId(), author.getName());
     }
 }
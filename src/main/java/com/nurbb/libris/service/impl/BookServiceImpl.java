@@ -1,7 +1,10 @@
 package com.nurbb.libris.service.impl;
 
+import com.nurbb.libris.cache.CatalogVersion;
+import com.nurbb.libris.datasource.PrimaryRead;
 import com.nurbb.libris.exception.InvalidRequestException;
 import com.nurbb.libris.exception.NotFoundException;
+import com.nurbb.libris.logging.LogMarkers;
 import com.nurbb.libris.model.dto.request.BookRequest;
 import com.nurbb.libris.model.dto.response.BookAvailabilityResponse;
 import com.nurbb.libris.model.dto.response.BookDeleteResponse;
@@ -10,10 +13,12 @@ import com.nurbb.libris.model.entity.Author;
 import com.nurbb.libris.model.entity.Book;
 import com.nurbb.libris.model.mapper.BookMapper;
 import com.nurbb.libris.reactive.BookAvailabilityPublisher;
+import com.nurbb.libris.repository.BookFieldRepository;
 import com.nurbb.libris.repository.BookRepository;
 import com.nurbb.libris.repository.BorrowRepository;
 import com.nurbb.libris.service.AuthorService;
 import com.nurbb.libris.service.BookService;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.cache.annotation.CacheEvict;
@@ -22,7 +27,9 @@ import org.springframework.data.domain.*;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 import java.util.stream.Stream;
 
@@ -36,9 +43,10 @@ public class BookServiceImpl implements BookService {
     private final BookMapper bookMapper;
     private final BorrowRepository borrowRepository;
     private final BookAvailabilityPublisher bookAvailabilityPublisher;
+    private final CatalogVersion catalogVersion;
 
 
-    @CacheEvict(value = { "bookList", "libraryStatistics" }, allEntries = true)
+    @CacheEvict(value = "libraryStatistics", allEntries = true)
     @Override
     @Transactional
     public BookResponse addBook(BookRequest request) {
@@ -50,6 +58,7 @@ public class BookServiceImpl implements BookService {
         Author author = authorService.getAuthorByNameOrCreate(request.getAuthorName());
         Book book = bookMapper.toEntity(request, author);
         Book saved = bookRepository.save(book);
+        catalogVersion.changed();
 
         // Real-time availability publish
         bookAvailabilityPublisher.publish(BookAvailabilityResponse.builder()
@@ -62,14 +71,19 @@ public class BookServiceImpl implements BookService {
     }
 
     @Override
+    @PrimaryRead
+    @Transactional(readOnly = true)
     public BookResponse getBookById(UUID id) {
         Book book = bookRepository.findById(id)
                 .orElseThrow(() -> new NotFoundException("Book not found with id: " + id));
         return bookMapper.toResponse(book);
     }
 
-    @Cacheable(value = "bookList")
+    // Keyed by catalogue version: a load that began before a change stores under the old version
+    @Cacheable(value = "bookList", key = "@catalogVersion.etag()")
     @Override
+    @PrimaryRead
+    @Transactional(readOnly = true)
     public List<BookResponse> getAllBooks() {
         List<Book> books = bookRepository.findAll();
 
@@ -83,6 +97,28 @@ public class BookServiceImpl implements BookService {
     }
 
     @Override
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> getAllBooks(Collection<String> fields) {
+        return bookRepository.findAllFields(BookFieldRepository.FIELDS.resolve(fields));
+    }
+
+    @Override
+    public List<String> resolveFields(Collection<String> fields) {
+        return BookFieldRepository.FIELDS.resolve(fields);
+    }
+
+    @Override
+    @PrimaryRead
+    @Transactional(readOnly = true)
+    public List<BookResponse> getBooksByIds(Collection<UUID> ids) {
+        return bookRepository.findAllByIdCacheFirst(ids).stream()
+                .map(bookMapper::toResponse)
+                .toList();
+    }
+
+    @Timed("libris.books.search")
+    @Override
+    @Transactional(readOnly = true)
     public Page<BookResponse> searchBooks(String query, int page, int size) {
         Pageable pageable = PageRequest.of(page, size);
 
@@ -93,7 +129,7 @@ public class BookServiceImpl implements BookService {
         ).flatMap(p -> p.getContent().stream()).distinct().toList();
 
         if (mergedResults.isEmpty()) {
-            log.info("Search query '{}' returned no results.", query);
+            log.info(LogMarkers.HIGH_FREQUENCY, "Search query '{}' returned no results.", query);
         }
 
         return new PageImpl<>(
@@ -164,6 +200,7 @@ public class BookServiceImpl implements BookService {
         existing.setPageCount(request.getPageCount());
 
         Book saved = bookRepository.save(existing);
+        catalogVersion.changed();
 
         // Real-time availability publish
         bookAvailabilityPublisher.publish(BookAvailabilityResponse.builder()
@@ -180,7 +217,7 @@ public class BookServiceImpl implements BookService {
      * Prevents deletion if all copies are currently borrowed.
      */
 
-    @CacheEvict(value = { "bookList", "libraryStatistics", "overdueStats" }, allEntries = true)
+    @CacheEvict(value = { "libraryStatistics", "overdueStats" }, allEntries = true)
     @Override
     @Transactional
     public BookDeleteResponse deleteBook(UUID id) {
@@ -198,6 +235,7 @@ public class BookServiceImpl implements BookService {
         book.setCount(book.getCount() - 1);
         book.setAvailable(book.getCount() > activeBorrows);
         Book updated = bookRepository.save(book);
+        catalogVersion.changed();
 
         bookAvailabilityPublisher.publish(BookAvailabilityResponse.builder()
                 .bookId(book.getId())
@@ -0,0 +1,86 @@
+package com.nurbb.libris.service.impl;
+
+import com.nurbb.libris.repository.BorrowArchiveRepository;
+import com.nurbb.libris.repository.BorrowRepository;
+import com.nurbb.libris.service.BorrowArchiveService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Keeps the borrows table small by moving returned borrows older than the retention window
+ * into borrows_archive. Each batch is copied and deleted in its own transaction, so a failure
+ * leaves every row in exactly one of the two tables and the next run picks up where this one stopped.
+ * Every node runs the same schedule: a batch locks the rows it selects and skips rows locked by another
+ * node, so concurrent runs split the work instead of copying the same rows twice.
+ * Active borrows are never touched, so the hot paths (quota, overdue, locks) only scan live rows.
+ */
+
+@Slf4j
+@Service
+public class BorrowArchiveServiceImpl implements BorrowArchiveService {
+
+    private final BorrowRepository borrowRepository;
+    private final BorrowArchiveRepository borrowArchiveRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final Duration retention;
+    private final int batchSize;
+
+    public BorrowArchiveServiceImpl(BorrowRepository borrowRepository,
+                                    BorrowArchiveRepository borrowArchiveRepository,
+                                    PlatformTransactionManager transactionManager,
+                                    @Value("${libris.borrow-archive.enabled:true}") boolean enabled,
+                                    @Value("${libris.borrow-archive.retention:365d}") Duration retention,
+                                    @Value("${libris.borrow-archive.batch-size:500}") int batchSize) {
+        this.borrowRepository = borrowRepository;
+        this.borrowArchiveRepository = borrowArchiveRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+        this.retention = retention;
+        this.batchSize = batchSize;
+    }
+
+    @Scheduled(cron = "${libris.borrow-archive.cron:0 30 3 * * *}")
+    public void archiveExpired() {
+        if (!enabled) {
+            return;
+        }
+        LocalDate cutoff = LocalDate.now().minusDays(retention.toDays());
+        int archived = archiveReturnedBefore(cutoff);
+        if (archived > 0) {
+            log.info("Archived {} returned borrows older than {}", archived, cutoff);
+        }
+    }
+
+    @Override
+    public int archiveReturnedBefore(LocalDate cutoff) {
+        int total = 0;
+        int moved;
+        do {
+            moved = transactionTemplate.execute(status -> archiveBatch(cutoff));
+            total += moved;
+        } while (moved == batchSize);
+        return total;
+    }
+
+    private int archiveBatch(LocalDate cutoff) {
+        List<UUID> ids = borrowRepository.findArchivableIds(cutoff, PageRequest.of(0, batchSize));
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        borrowArchiveRepository.copyFromBorrows(ids, LocalDateTime.now());
+        return borrowRepository.deleteAllByIdIn(ids);
+    }
+
+}
@@ -0,0 +1,35 @@
+package com.nurbb.libris.service.impl;
+
+import com.nurbb.libris.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Brings the per-user active-borrow ledger in line with the borrows table on startup.
+ * Opt-in repair tool: upgraded databases are backfilled by V3__baseline_release_columns.sql.
+ * The bulk update does not take the per-user row locks that borrow/return use, so enable it
+ * only on a single node while no other node is serving borrows and returns.
+ */
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "libris.borrow-ledger", name = "reconcile-on-startup", havingValue = "true")
+public class BorrowLedgerReconciler implements ApplicationRunner {
+
+    private final UserRepository userRepository;
+
+    @Override
+    @Transactional
+    public void run(ApplicationArguments args) {
+        int updated = userRepository.reconcileActiveBorrowLedger();
+        if (updated > 0) {
+            log.info("Reconciled active-borrow ledger for {} user(s).", updated);
+        }
+    }
+}
@@ -1,8 +1,12 @@
 package com.nurbb.libris.service.impl;
 
+import com.nurbb.libris.cache.CatalogVersion;
+import com.nurbb.libris.datasource.PrimaryRead;
 import com.nurbb.libris.exception.InvalidRequestException;
 import com.nurbb.libris.exception.NotFoundException;
 import com.nurbb.libris.exception.QuotasFullException;
+import com.nurbb.libris.logging.LogMarkers;
+import com.nurbb.libris.model.dto.projection.BorrowSummary;
 import com.nurbb.libris.model.dto.request.BorrowRequest;
 import com.nurbb.libris.model.dto.response.BookAvailabilityResponse;
 import com.nurbb.libris.model.dto.response.BorrowResponse;
@@ -13,11 +17,13 @@ import com.nurbb.libris.model.entity.User;
 import com.nurbb.libris.model.mapper.BorrowMapper;
 import com.nurbb.libris.reactive.BookAvailabilityPublisher;
 import com.nurbb.libris.repository.BookRepository;
+import com.nurbb.libris.repository.BorrowArchiveRepository;
 import com.nurbb.libris.repository.BorrowRepository;
 import com.nurbb.libris.repository.UserRepository;
 import com.nurbb.libris.service.BorrowService;
+import com.nurbb.libris.service.GamificationService;
 import com.nurbb.libris.util.LevelUtils;
-import jakarta.transaction.Transactional;
+import io.micrometer.core.annotation.Timed;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -27,12 +33,14 @@ import org.springframework.security.access.AccessDeniedException;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.Duration;
 import java.time.LocalDate;
 import java.util.List;
 import java.util.UUID;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Slf4j
 @Service
@@ -40,10 +48,13 @@ import java.util.stream.Collectors;
 public class BorrowServiceImpl implements BorrowService {
 
     private final BorrowRepository borrowRepository;
+    private final BorrowArchiveRepository borrowArchiveRepository;
     private final BookRepository bookRepository;
     private final UserRepository userRepository;
     private final BorrowMapper borrowMapper;
     private final BookAvailabilityPublisher availabilityPublisher;
+    private final GamificationService gamificationService;
+    private final CatalogVersion catalogVersion;
 
     /**
      * Borrows a book if it's available and the user is eligible.
@@ -55,6 +66,7 @@ public class BorrowServiceImpl implements BorrowService {
             key = "#request.email",
             allEntries = true
     )
+    @Timed(value = "libris.borrow", extraTags = { "operation", "borrow" })
     @Transactional
     @Override
     public BorrowResponse borrowBook(@Valid BorrowRequest request) {
@@ -62,16 +74,18 @@ public class BorrowServiceImpl implements BorrowService {
         String userRole = getLoggedInUserRole();
         validateBorrowDate(request.getBorrowDate(), userRole);
 
-        Book book = bookRepository.findById(request.getBookId())
+        // Lock the user row first, then the book row: concurrent borrows/returns for the same user
+        // (quota, ledger, score) and for the same book (stock count) are serialized until commit.
+        User user = userRepository.findByEmailForUpdate(request.getEmail())
+                .orElseThrow(() -> new NotFoundException("User not found with email: " + request.getEmail()));
+
+        Book book = bookRepository.findByIdForUpdate(request.getBookId())
                 .orElseThrow(() -> new NotFoundException("Book not found"));
 
         if (!book.isAvailable() || book.getCount() <= 0) {
             throw new InvalidRequestException("Book is not available for borrowing.");
         }
 
-        User user = userRepository.findByEmail(request.getEmail())
-                .orElseThrow(() -> new NotFoundException("User not found with email: " + request.getEmail()));
-
         checkUserEligibility(user);
 
         if (borrowRepository.existsByBookAndUserAndReturnedFalse(book, user)) {
@@ -88,14 +102,8 @@ public class BorrowServiceImpl implements BorrowService {
             request.setDueDate(request.getBorrowDate().plusDays(defaultDays));
         }
 
-        // Get user's currently active (not returned) borrows
-        List<Borrow> activeBorrows = borrowRepository.findByUser(user).stream()
-                .filter(b -> !b.getReturned())
-                .toList();
-
-        long activeDays = activeBorrows.stream()
-                .mapToLong(b -> Duration.between(b.getBorrowDate().atStartOfDay(), b.getDueDate().atStartOfDay()).toDays())
-                .sum();
+        // Active days come from the user's ledger instead of scanning the borrow history
+        long activeDays = user.getActiveBorrowDays();
 
         long newBorrowDays = Duration.between(request.getBorrowDate().atStartOfDay(), request.getDueDate().atStartOfDay()).toDays();
 
@@ -117,6 +125,8 @@ public class BorrowServiceImpl implements BorrowService {
         book.setAvailable(book.getCount() > 0);
 
         bookRepository.save(book);
+        // Stock count and availability are part of the catalogue responses
+        catalogVersion.changed();
 
         Borrow saved = borrowRepository.save(borrow);
 
@@ -128,8 +138,10 @@ public class BorrowServiceImpl implements BorrowService {
                         .build()
         );
 
-        log.info("User {} borrowed book '{}' from {} to {}", user.getEmail(), book.getTitle(), borrow.getBorrowDate(), borrow.getDueDate());
+        log.info(LogMarkers.HIGH_FREQUENCY, "User {} borrowed book '{}' from {} to {}", user.getEmail(), book.getTitle(), borrow.getBorrowDate(), borrow.getDueDate());
 
+        user.setActiveBorrowCount(user.getActiveBorrowCount() + 1);
+        user.setActiveBorrowDays(user.getActiveBorrowDays() + (int) newBorrowDays);
         user.setTotalBorrowedBooks(user.getTotalBorrowedBooks() + 1);
         int reward = user.getTotalBorrowedBooks() == 1 ? 3 : 1;
         user.setScore(user.getScore() + reward);
@@ -141,13 +153,15 @@ public class BorrowServiceImpl implements BorrowService {
 
     /**
      * Returns a borrowed book.
-     * Calculates score delta based on return timing and updates user stats accordingly.
+     * Score delta and user stats based on return timing are applied asynchronously by the gamification pipeline.
      */
 
     @CacheEvict(
             value = { "borrowHistory", "libraryStatistics", "overdueStats" },
             allEntries = true
-    )    @Transactional
+    )
+    @Timed(value = "libris.borrow", extraTags = { "operation", "return" })
+    @Transactional
     @Override
     public BorrowResponse returnBook(UUID borrowId) {
 
@@ -155,15 +169,19 @@ public class BorrowServiceImpl implements BorrowService {
         validateReturnDate(LocalDate.now(), userRole);
 
 
-        Borrow borrow = borrowRepository.findById(borrowId)
+        // Same lock order as borrowBook (after the borrow row itself): user, then book
+        Borrow borrow = borrowRepository.findByIdForUpdate(borrowId)
                 .orElseThrow(() -> new NotFoundException("Borrow record not found"));
 
-        User user = borrow.getUser();
-
         if (borrow.getReturned()) {
             throw new InvalidRequestException("Book has already been returned.");
         }
 
+        User user = userRepository.findByIdForUpdate(borrow.getUser().getId())
+                .orElseThrow(() -> new NotFoundException("User not found"));
+        Book book = bookRepository.findByIdForUpdate(borrow.getBook().getId())
+                .orElseThrow(() -> new NotFoundException("Book not found"));
+
         // Ensure that only librarians or the borrowing user can return the book
         User currentUser = getCurrentAuthenticatedUser();
         if (!isLibrarian(currentUser) && !borrow.getUser().getId().equals(currentUser.getId())) {
@@ -177,8 +195,6 @@ public class BorrowServiceImpl implements BorrowService {
         borrow.setReturned(true);
         borrow.setReturnDate(returnDate);
 
-        Book book = borrow.getBook();
-
         book.setCount(book.getCount() + 1);
         book.setAvailable(true);
 
@@ -190,52 +206,33 @@ public class BorrowServiceImpl implements BorrowService {
                         .build()
         );
 
-        int delta = 0;
-
-        // Update user score based on return timing:
-        // - Late: -3 (≤7 days) or -6 (>7 days), reset streak
-        // - On time: +5, +2 bonus if early, +10 bonus every 5 timely returns
-        // Then update level, reading stats, and save all changes.
-
-        long delayDays = Duration.between(dueDate.atStartOfDay(), returnDate.atStartOfDay()).toDays();
-        boolean isLate = delayDays > 0;
-        boolean isEarly = returnDate.isBefore(dueDate.minusDays(1));
+        // Quota ledger stays synchronous; score, streak, level and reading stats are applied
+        // asynchronously from the gamification outbox written in this transaction.
+        long plannedDays = Duration.between(borrowDate.atStartOfDay(), dueDate.atStartOfDay()).toDays();
+        user.setActiveBorrowCount(Math.max(0, user.getActiveBorrowCount() - 1));
+        user.setActiveBorrowDays(Math.max(0, user.getActiveBorrowDays() - (int) plannedDays));
 
-        if (isLate) {
-            delta = delayDays > 7 ? -6 : -3;
-            user.setTotalLateReturns(user.getTotalLateReturns() + 1);
-            user.setStreakTimelyReturns(0);
-        } else {
-            delta = 5;
-            if (isEarly) delta += 2;
-            user.setStreakTimelyReturns(user.getStreakTimelyReturns() + 1);
-            if (user.getStreakTimelyReturns() % 5 == 0) delta += 10;
-        }
+        gamificationService.recordReturn(borrow);
 
-        user.setScore(user.getScore() + delta);
-        user.setLevel(LevelUtils.determineLevel(user.getScore()));
-        user.setTotalReturnedBooks(user.getTotalReturnedBooks() + 1);
-
-        long readingDays = Duration.between(borrowDate.atStartOfDay(), returnDate.atStartOfDay()).toDays();
-        user.setTotalReadingDays(user.getTotalReadingDays() + (int) readingDays);
-        user.setTotalReadPages(user.getTotalReadPages() + book.getPageCount());
-
-        log.info("User {} returned book '{}' on {}. Score delta: {}, new score: {}", user.getEmail(), book.getTitle(), returnDate, delta, user.getScore());
+        log.info(LogMarkers.HIGH_FREQUENCY, "User {} returned book '{}' on {}", user.getEmail(), book.getTitle(), returnDate);
 
         userRepository.save(user);
         bookRepository.save(book);
+        catalogVersion.changed();
         borrowRepository.save(borrow);
 
         return borrowMapper.toResponse(borrow);
     }
 
     /**
-     * Retrieves the borrowing history of a specific user.
+     * Retrieves the borrowing history of a specific user, including archived borrows.
      * Patrons can only access their own records.
      */
 
     @Cacheable(value = "borrowHistory", key = "#userId")
     @Override
+    @PrimaryRead
+    @Transactional(readOnly = true)
     public List<BorrowResponse> getBorrowHistoryByUser(UUID userId) {
 
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
@@ -248,15 +245,19 @@ public class BorrowServiceImpl implements BorrowService {
             throw new InvalidRequestException("Patrons can only view their own borrow history.");
         }
 
-        User requestedUser = userRepository.findById(userId)
-                .orElseThrow(() -> new NotFoundException("User not found"));
+        if (!userRepository.existsById(userId)) {
+            throw new NotFoundException("User not found");
+        }
 
-        return borrowRepository.findByUser(requestedUser).stream()
-                .map(borrowMapper::toResponse)
+        return Stream.concat(
+                        borrowRepository.findSummariesByUserId(userId).stream(),
+                        borrowArchiveRepository.findSummariesByUserId(userId).stream())
+                .map(borrowMapper::fromSummary)
                 .collect(Collectors.toList());
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<BorrowResponse> getAllBorrows() {
         Authentication auth = SecurityContextHolder.getContext().getAuthentication();
         String email = auth.getName();
@@ -264,31 +265,37 @@ public class BorrowServiceImpl implements BorrowService {
         boolean isLibrarian = auth.getAuthorities().stream()
                 .anyMatch(a -> a.getAuthority().equals("ROLE_LIBRARIAN"));
 
-        List<Borrow> borrows;
+        Stream<BorrowSummary> borrows;
 
+        // Active and recently returned borrows first, then the archived ones
         if (isLibrarian) {
-            borrows = borrowRepository.findAll();
+            borrows = Stream.concat(
+                    borrowRepository.findAllSummaries().stream(),
+                    borrowArchiveRepository.findAllSummaries().stream());
         } else {
-            borrows = borrowRepository.findByUserEmail(email);
+            borrows = Stream.concat(
+                    borrowRepository.findSummariesByUserEmail(email).stream(),
+                    borrowArchiveRepository.findSummariesByUserEmail(email).stream());
         }
 
-        return borrows.stream()
-                .map(borrowMapper::toResponse)
+        return borrows
+                .map(borrowMapper::fromSummary)
                 .toList();
     }
 
 
 
     @Override
+    @Transactional(readOnly = true)
     public List<BorrowResponse> getOverdueBorrows() {
-        List<Borrow> borrows = borrowRepository.findByReturnedFalseAndDueDateBefore(LocalDate.now());
+        List<BorrowSummary> borrows = borrowRepository.findOverdueSummaries(LocalDate.now());
 
         if (borrows.isEmpty()) {
-            log.info("No overdue borrows found.");
+            log.info(LogMarkers.HIGH_FREQUENCY, "No overdue borrows found.");
         }
 
         return borrows.stream()
-                .map(borrowMapper::toResponse)
+                .map(borrowMapper::fromSummary)
                 .collect(Collectors.toList());
 
     }
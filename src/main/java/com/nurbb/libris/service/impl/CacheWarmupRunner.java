@@ -0,0 +1,106 @@
+package com.nurbb.libris.service.impl;
+
+import com.nurbb.libris.service.AuthorService;
+import com.nurbb.libris.service.BookService;
+import com.nurbb.libris.service.StatisticsService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Fills the configured caches in parallel before the application reports itself ready.
+ * Spring Boot publishes ReadinessState.ACCEPTING_TRAFFIC only after all ApplicationRunners have returned,
+ * so /actuator/health/readiness stays OUT_OF_SERVICE until this runner is done and the load balancer
+ * does not route the first requests to a cold node. A failing loader or the timeout only costs a cold cache;
+ * it never blocks startup.
+ */
+
+@Slf4j
+@Component
+@Order(Ordered.LOWEST_PRECEDENCE)
+public class CacheWarmupRunner implements ApplicationRunner {
+
+    private final Map<String, Runnable> loaders;
+    private final boolean enabled;
+    private final List<String> caches;
+    private final Duration timeout;
+
+    public CacheWarmupRunner(BookService bookService,
+                             AuthorService authorService,
+                             StatisticsService statisticsService,
+                             @Value("${libris.cache-warmup.enabled:true}") boolean enabled,
+                             @Value("${libris.cache-warmup.caches:bookList,authorList,libraryStatistics,overdueStats}") List<String> caches,
+                             @Value("${libris.cache-warmup.timeout:60s}") Duration timeout) {
+        // Calls go through the service proxies, so @Cacheable stores the results
+        this.loaders = Map.of(
+                "bookList", bookService::getAllBooks,
+                "authorList", authorService::getAllAuthors,
+                "libraryStatistics", statisticsService::getLibraryStatistics,
+                "overdueStats", statisticsService::getOverdueBookStatistics);
+        this.enabled = enabled;
+        this.caches = caches;
+        this.timeout = timeout;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!enabled || caches.isEmpty()) {
+            return;
+        }
+        long start = System.nanoTime();
+        AtomicInteger threadCount = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(caches.size(), r -> {
+            Thread thread = new Thread(r, "cache-warmup-" + threadCount.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            List<CompletableFuture<Boolean>> tasks = caches.stream()
+                    .map(name -> CompletableFuture.supplyAsync(() -> warm(name), executor))
+                    .toList();
+            CompletableFuture.allOf(tasks.toArray(CompletableFuture[]::new))
+                    .get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+            long warmed = tasks.stream().filter(CompletableFuture::join).count();
+            log.info("Warmed {} of {} caches in {} ms", warmed, caches.size(),
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        } catch (TimeoutException ex) {
+            log.warn("Cache warm-up did not finish within {}; continuing with partially warm caches", timeout);
+        } catch (ExecutionException ex) {
+            log.warn("Cache warm-up failed", ex.getCause());
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private boolean warm(String name) {
+        Runnable loader = loaders.get(name);
+        if (loader == null) {
+            log.warn("No warm-up loader for cache '{}'", name);
+            return false;
+        }
+        try {
+            loader.run();
+            return true;
+        } catch (Exception ex) {
+            log.warn("Warming cache '{}' failed; it will be filled by the first request", name, ex);
+            return false;
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.nurbb.libris.service.impl;
+
+import com.nurbb.libris.service.GamificationService;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs the gamification pipeline on striped single-thread executors: events of one user are always
+ * handled by the same thread, in order, while different users proceed in parallel. A user already
+ * queued is not queued again, so many returns in a burst collapse into one batch update.
+ * Pending outbox rows are re-driven on startup and periodically, which covers crashes and failed batches.
+ */
+
+@Slf4j
+@Component
+public class GamificationDispatcher {
+
+    private final GamificationService gamificationService;
+    private final ExecutorService[] stripes;
+    private final Set<UUID> queued = ConcurrentHashMap.newKeySet();
+    private final int batchSize;
+
+    public GamificationDispatcher(GamificationService gamificationService,
+                                  @Value("${libris.gamification.stripes:4}") int stripeCount,
+                                  @Value("${libris.gamification.batch-size:100}") int batchSize) {
+        this.gamificationService = gamificationService;
+        this.batchSize = batchSize;
+        this.stripes = new ExecutorService[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            String name = "gamification-" + i;
+            stripes[i] = Executors.newSingleThreadExecutor(r -> {
+                Thread thread = new Thread(r, name);
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+
+    @TransactionalEventListener
+    public void onEventRecorded(GamificationEventRecorded event) {
+        dispatch(event.userId());
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${libris.gamification.redrive-interval:PT1M}",
+            initialDelayString = "${libris.gamification.redrive-interval:PT1M}")
+    public void redrivePending() {
+        gamificationService.findUsersWithPendingEvents().forEach(this::dispatch);
+    }
+
+    public void dispatch(UUID userId) {
+        if (queued.add(userId)) {
+            stripes[Math.floorMod(userId.hashCode(), stripes.length)].execute(() -> drain(userId));
+        }
+    }
+
+    private void drain(UUID userId) {
+        // Clear the flag before reading the outbox: an event committed from here on queues a follow-up run
+        // on this same stripe, so nothing is missed and runs for one user never overlap.
+        queued.remove(userId);
+        try {
+            int applied;
+            do {
+                applied = gamificationService.processPending(userId);
+            } while (applied >= batchSize);
+        } catch (Exception ex) {
+            log.warn("Gamification batch for user {} failed; it will be retried on the next re-drive", userId, ex);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        for (ExecutorService stripe : stripes) {
+            stripe.shutdown();
+        }
+        for (ExecutorService stripe : stripes) {
+            stripe.awaitTermination(10, TimeUnit.SECONDS);
+        }
+    }
+}
@@ -0,0 +1,10 @@
+package com.nurbb.libris.service.impl;
+
+import java.util.UUID;
+
+/**
+ * Published when a gamification outbox entry is written; dispatched after the surrounding transaction commits.
+ */
+
+public record GamificationEventRecorded(UUID userId) {
+}
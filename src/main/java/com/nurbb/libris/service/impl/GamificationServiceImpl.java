@@ -0,0 +1,142 @@
+package com.nurbb.libris.service.impl;
+
+import com.nurbb.libris.logging.LogMarkers;
+import com.nurbb.libris.model.entity.Borrow;
+import com.nurbb.libris.model.entity.GamificationEvent;
+import com.nurbb.libris.model.entity.User;
+import com.nurbb.libris.repository.GamificationEventRepository;
+import com.nurbb.libris.repository.UserRepository;
+import com.nurbb.libris.service.GamificationService;
+import com.nurbb.libris.util.LevelUtils;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Applies return-based score, streak, level and reading stats outside the return transaction.
+ * Returns write an outbox row; the dispatcher later applies all pending rows of a user in one transaction.
+ */
+
+@Slf4j
+@Service
+public class GamificationServiceImpl implements GamificationService {
+
+    private final GamificationEventRepository gamificationEventRepository;
+    private final UserRepository userRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final int batchSize;
+
+    public GamificationServiceImpl(GamificationEventRepository gamificationEventRepository,
+                                   UserRepository userRepository,
+                                   ApplicationEventPublisher eventPublisher,
+                                   @Value("${libris.gamification.batch-size:100}") int batchSize) {
+        this.gamificationEventRepository = gamificationEventRepository;
+        this.userRepository = userRepository;
+        this.eventPublisher = eventPublisher;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Writes the outbox row in the caller's transaction. Dispatch happens only after that transaction commits.
+     */
+
+    @Override
+    @Transactional
+    public void recordReturn(Borrow borrow) {
+        UUID userId = borrow.getUser().getId();
+
+        gamificationEventRepository.save(GamificationEvent.builder()
+                .userId(userId)
+                .borrowId(borrow.getId())
+                .borrowDate(borrow.getBorrowDate())
+                .dueDate(borrow.getDueDate())
+                .returnDate(borrow.getReturnDate())
+                .pageCount(borrow.getBook().getPageCount())
+                .build());
+
+        eventPublisher.publishEvent(new GamificationEventRecorded(userId));
+    }
+
+    /**
+     * Applies up to batch-size pending events of one user in order, with a single locked user update.
+     * Returns the number of events consumed.
+     */
+
+    @CacheEvict(value = "userById", key = "#userId")
+    @Override
+    @Transactional
+    public int processPending(UUID userId) {
+        // Lock the user before reading the outbox so two workers never apply the same events
+        User user = userRepository.findByIdForUpdate(userId).orElse(null);
+        List<GamificationEvent> events = gamificationEventRepository
+                .findByUserIdOrderByCreatedDateAsc(userId, PageRequest.of(0, batchSize));
+
+        if (events.isEmpty()) {
+            return 0;
+        }
+        if (user == null) {
+            log.warn("Dropping {} gamification event(s) for deleted user {}", events.size(), userId);
+            gamificationEventRepository.deleteAllInBatch(events);
+            return events.size();
+        }
+
+        int scoreBefore = user.getScore();
+        events.forEach(event -> apply(user, event));
+        user.setLevel(LevelUtils.determineLevel(user.getScore()));
+
+        userRepository.save(user);
+        gamificationEventRepository.deleteAllInBatch(events);
+
+        log.info(LogMarkers.HIGH_FREQUENCY, "Applied {} return event(s) for user {}. Score delta: {}, new score: {}",
+                events.size(), user.getEmail(), user.getScore() - scoreBefore, user.getScore());
+        return events.size();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<UUID> findUsersWithPendingEvents() {
+        return gamificationEventRepository.findPendingUserIds();
+    }
+
+    // Update user score based on return timing:
+    // - Late: -3 (≤7 days) or -6 (>7 days), reset streak
+    // - On time: +5, +2 bonus if early, +10 bonus every 5 timely returns
+    // Then update reading stats.
+
+    private void apply(User user, GamificationEvent event) {
+        LocalDate returnDate = event.getReturnDate();
+        LocalDate dueDate = event.getDueDate();
+
+        int delta;
+        long delayDays = Duration.between(dueDate.atStartOfDay(), returnDate.atStartOfDay()).toDays();
+        boolean isLate = delayDays > 0;
+        boolean isEarly = returnDate.isBefore(dueDate.minusDays(1));
+
+        if (isLate) {
+            delta = delayDays > 7 ? -6 : -3;
+            user.setTotalLateReturns(user.getTotalLateReturns() + 1);
+            user.setStreakTimelyReturns(0);
+        } else {
+            delta = 5;
+            if (isEarly) delta += 2;
+            user.setStreakTimelyReturns(user.getStreakTimelyReturns() + 1);
+            if (user.getStreakTimelyReturns() % 5 == 0) delta += 10;
+        }
+
+        user.setScore(user.getScore() + delta);
+        user.setTotalReturnedBooks(user.getTotalReturnedBooks() + 1);
+
+        long readingDays = Duration.between(event.getBorrowDate().atStartOfDay(), returnDate.atStartOfDay()).toDays();
+        user.setTotalReadingDays(user.getTotalReadingDays() + (int) readingDays);
+        user.setTotalReadPages(user.getTotalReadPages() + event.getPageCount());
+    }
+}
@@ -0,0 +1,182 @@
+package com.nurbb.libris.service.impl;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.nurbb.libris.exception.InvalidRequestException;
+import com.nurbb.libris.model.entity.IdempotencyRecord;
+import com.nurbb.libris.repository.IdempotencyRecordRepository;
+import com.nurbb.libris.service.IdempotencyService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+/**
+ * Idempotency-Key support for retried write requests.
+ * Completed responses are kept in a bounded, TTL-evicting in-memory cache and in the idempotency_records table,
+ * which covers restarts, cache evictions and other instances. The record is inserted in the same transaction
+ * as the action, so a concurrent request with the same key blocks on the unique constraint and then replays
+ * the winner's response instead of running the action a second time.
+ */
+
+@Slf4j
+@Service
+public class IdempotencyServiceImpl implements IdempotencyService {
+
+    private static final int MAX_KEY_LENGTH = 255;
+
+    private final IdempotencyRecordRepository idempotencyRecordRepository;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration ttl;
+    private final Cache<String, StoredResponse> responses;
+
+    public IdempotencyServiceImpl(IdempotencyRecordRepository idempotencyRecordRepository,
+                                  ObjectMapper objectMapper,
+                                  PlatformTransactionManager transactionManager,
+                                  @Value("${libris.idempotency.ttl:24h}") Duration ttl,
+                                  @Value("${libris.idempotency.max-entries:10000}") long maxEntries) {
+        this.idempotencyRecordRepository = idempotencyRecordRepository;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.ttl = ttl;
+        this.responses = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .expireAfterWrite(ttl)
+                .build();
+    }
+
+    @Override
+    public <T> T execute(String idempotencyKey, String operation, Object request, Class<T> responseType, Supplier<T> action) {
+        if (idempotencyKey == null) {
+            return action.get();
+        }
+        if (idempotencyKey.isBlank() || idempotencyKey.length() > MAX_KEY_LENGTH) {
+            throw new InvalidRequestException("Idempotency-Key must be between 1 and " + MAX_KEY_LENGTH + " characters.");
+        }
+
+        String principal = currentPrincipal();
+        String cacheKey = principal + ":" + idempotencyKey;
+        String requestHash = fingerprint(operation, request);
+
+        StoredResponse stored = responses.getIfPresent(cacheKey);
+        if (stored == null) {
+            stored = findStored(principal, idempotencyKey);
+        }
+        if (stored != null) {
+            responses.put(cacheKey, stored);
+            return replay(stored, operation, requestHash, responseType);
+        }
+
+        AtomicBoolean recordInserted = new AtomicBoolean();
+        try {
+            StoredResponse completed = transactionTemplate.execute(status -> {
+                idempotencyRecordRepository.deleteExpired(principal, idempotencyKey, LocalDateTime.now());
+                IdempotencyRecord record = idempotencyRecordRepository.saveAndFlush(IdempotencyRecord.builder()
+                        .principal(principal)
+                        .idempotencyKey(idempotencyKey)
+                        .operation(operation)
+                        .requestHash(requestHash)
+                        .expiresAt(LocalDateTime.now().plus(ttl))
+                        .build());
+                recordInserted.set(true);
+
+                record.setResponseBody(serialize(action.get()));
+                return new StoredResponse(operation, requestHash, record.getResponseBody());
+            });
+            responses.put(cacheKey, completed);
+            return deserialize(completed.body(), responseType);
+        } catch (DataIntegrityViolationException ex) {
+            if (recordInserted.get()) {
+                throw ex;
+            }
+            // Another request with the same key committed first
+            StoredResponse winner = findStored(principal, idempotencyKey);
+            if (winner == null) {
+                throw new InvalidRequestException("A request with this Idempotency-Key is already being processed.");
+            }
+            responses.put(cacheKey, winner);
+            return replay(winner, operation, requestHash, responseType);
+        }
+    }
+
+    /**
+     * Removes expired records. The in-memory cache expires entries on its own.
+     */
+
+    @Scheduled(fixedDelayString = "${libris.idempotency.purge-interval:PT1H}")
+    @Transactional
+    public void purgeExpired() {
+        int deleted = idempotencyRecordRepository.deleteAllExpired(LocalDateTime.now());
+        if (deleted > 0) {
+            log.debug("Purged {} expired idempotency records", deleted);
+        }
+    }
+
+    private StoredResponse findStored(String principal, String idempotencyKey) {
+        return idempotencyRecordRepository.findByPrincipalAndIdempotencyKey(principal, idempotencyKey)
+                .filter(r -> r.getExpiresAt().isAfter(LocalDateTime.now()))
+                .filter(r -> r.getResponseBody() != null)
+                .map(r -> new StoredResponse(r.getOperation(), r.getRequestHash(), r.getResponseBody()))
+                .orElse(null);
+    }
+
+    private <T> T replay(StoredResponse stored, String operation, String requestHash, Class<T> responseType) {
+        if (!stored.operation().equals(operation) || !stored.requestHash().equals(requestHash)) {
+            throw new InvalidRequestException("Idempotency-Key has already been used for a different request.");
+        }
+        log.debug("Replaying stored '{}' response for idempotent request", operation);
+        return deserialize(stored.body(), responseType);
+    }
+
+    private String currentPrincipal() {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        return auth != null ? auth.getName() : "anonymous";
+    }
+
+    private String fingerprint(String operation, Object request) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256")
+                    .digest((operation + ":" + objectMapper.writeValueAsString(request)).getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (JsonProcessingException | NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("Could not fingerprint idempotent request", ex);
+        }
+    }
+
+    private String serialize(Object response) {
+        try {
+            return objectMapper.writeValueAsString(response);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Could not store idempotent response", ex);
+        }
+    }
+
+    private <T> T deserialize(String body, Class<T> responseType) {
+        try {
+            return objectMapper.readValue(body, responseType);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Could not read stored idempotent response", ex);
+        }
+    }
+
+    private record StoredResponse(String operation, String requestHash, String body) {
+    }
+}
@@ -1,17 +1,21 @@
 package com.nurbb.libris.service.impl;
 
+import com.nurbb.libris.datasource.ReportingQuery;
 import com.nurbb.libris.model.dto.response.LibraryStatisticsResponse;
 import com.nurbb.libris.model.dto.response.SimpleCount;
 import com.nurbb.libris.model.entity.Book;
 import com.nurbb.libris.model.entity.Borrow;
 import com.nurbb.libris.repository.BookRepository;
+import com.nurbb.libris.repository.BorrowArchiveRepository;
 import com.nurbb.libris.repository.BorrowRepository;
 import com.nurbb.libris.repository.UserRepository;
 import com.nurbb.libris.service.StatisticsService;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
@@ -25,21 +29,26 @@ import java.util.stream.Collectors;
 @Slf4j
 @Service
 @RequiredArgsConstructor
+@ReportingQuery
 public class StatisticsServiceImpl implements StatisticsService {
 
     private final BookRepository bookRepository;
     private final BorrowRepository borrowRepository;
+    private final BorrowArchiveRepository borrowArchiveRepository;
     private final UserRepository userRepository;
 
-    @Cacheable(value = "libraryStatistics")
+    @Timed(value = "libris.statistics", extraTags = { "report", "library" })
+    @Cacheable(value = "libraryStatistics", sync = true)
     @Override
+    @Transactional(readOnly = true)
     public LibraryStatisticsResponse getLibraryStatistics() {
 
         log.info("Generating full library statistics...");
 
         long totalBooks = bookRepository.count();
         long totalUsers = userRepository.count();
-        long totalBorrows = borrowRepository.count();
+        // Archived borrows are returned ones, so they only count towards totals, return times and popularity
+        long totalBorrows = borrowRepository.count() + borrowArchiveRepository.count();
 
         long borrowedBooks = borrowRepository.findAll().stream()
                 .filter(borrow -> !borrow.getReturned())
@@ -56,16 +65,20 @@ public class StatisticsServiceImpl implements StatisticsService {
                 .filter(b -> b.getReturnDate() != null && b.getBorrowDate() != null)
                 .toList();
 
-        double avgReturnDays = returned.stream()
+        long returnedDays = returned.stream()
                 .mapToLong(b -> Duration.between(
                         b.getBorrowDate().atStartOfDay(),
                         b.getReturnDate().atStartOfDay()).toDays())
-                .average().orElse(0);
+                .sum() + borrowArchiveRepository.sumReturnDays();
+        long returnedCount = returned.size() + borrowArchiveRepository.countWithReturnDate();
+        double avgReturnDays = returnedCount > 0 ? (double) returnedDays / returnedCount : 0;
 
         Map<String, Long> borrowCountByBook = borrowRepository.findAll().stream()
                 .collect(Collectors.groupingBy(
                         b -> b.getBook().getTitle(),
                         Collectors.counting()));
+        borrowArchiveRepository.countByBookTitle()
+                .forEach(c -> borrowCountByBook.merge(c.getName(), c.getCount(), Long::sum));
 
         List<SimpleCount> mostBorrowedBooks = borrowCountByBook.entrySet().stream()
                 .sorted(Map.Entry.<String, Long>comparingByValue().reversed())
@@ -122,8 +135,10 @@ public class StatisticsServiceImpl implements StatisticsService {
     }
 
 
-    @Cacheable(value = "overdueStats")
+    @Timed(value = "libris.statistics", extraTags = { "report", "overdue" })
+    @Cacheable(value = "overdueStats", sync = true)
     @Override
+    @Transactional(readOnly = true)
     public Map<String, Object> getOverdueBookStatistics() {
         log.info("Generating detailed overdue borrow report...");
 
@@ -136,7 +151,7 @@ public class StatisticsServiceImpl implements StatisticsService {
         Map<String, Long> overdueByBook = overdueBorrows.stream()
                 .collect(Collectors.groupingBy(b -> b.getBook().getTitle(), Collectors.counting()));
 
-        long totalBorrows = borrowRepository.count();
+        long totalBorrows = borrowRepository.count() + borrowArchiveRepository.count();
         double overdueRatio = totalBorrows > 0 ? (double) totalOverdue / totalBorrows : 0;
 
         List<Map<String, Object>> detailedOverdues = overdueBorrows.stream().map(b -> {
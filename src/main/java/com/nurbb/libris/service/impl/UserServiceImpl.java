@@ -1,7 +1,10 @@
 package com.nurbb.libris.service.impl;
 
+import com.nurbb.libris.datasource.PrimaryRead;
 import com.nurbb.libris.exception.InvalidRequestException;
 import com.nurbb.libris.repository.BorrowRepository;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.security.access.AccessDeniedException;
@@ -12,19 +15,26 @@ import com.nurbb.libris.model.dto.response.UserStatisticsResponse;
 import com.nurbb.libris.model.entity.User;
 import com.nurbb.libris.model.entity.valueobject.Role;
 import com.nurbb.libris.model.mapper.UserMapper;
+import com.nurbb.libris.repository.UserFieldRepository;
 import com.nurbb.libris.repository.UserRepository;
 import com.nurbb.libris.service.UserService;
 import com.nurbb.libris.util.LevelUtils;
 import jakarta.annotation.PostConstruct;
-import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
@@ -37,6 +47,7 @@ public class UserServiceImpl implements UserService {
     private final BorrowRepository  borrowRepository;
     private final UserMapper userMapper;
     private final PasswordEncoder passwordEncoder;
+    private final CacheManager cacheManager;
 
     /**
      * Registers a new user. Automatically assigns role based on authentication status.
@@ -96,6 +107,8 @@ public class UserServiceImpl implements UserService {
 
     @Cacheable(value = "userById", key = "#id")
     @Override
+    @PrimaryRead
+    @Transactional(readOnly = true)
     public UserResponse getUserById(UUID id) {
         User user = userRepository.findById(id)
                 .orElseThrow(() -> new NotFoundException("User not found with id: " + id));
@@ -103,6 +116,7 @@ public class UserServiceImpl implements UserService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<UserResponse> getAllUsers() {
         Authentication auth = SecurityContextHolder.getContext().getAuthentication();
         String currentEmail = auth.getName();
@@ -122,6 +136,58 @@ public class UserServiceImpl implements UserService {
                 .orElse(List.of());
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> getAllUsers(Collection<String> fields) {
+        List<String> names = UserFieldRepository.FIELDS.resolve(fields);
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+
+        boolean isLibrarian = auth.getAuthorities().stream()
+                .anyMatch(a -> a.getAuthority().equals("ROLE_LIBRARIAN"));
+
+        return isLibrarian
+                ? userRepository.findAllFields(names)
+                : userRepository.findFieldsByEmail(names, auth.getName());
+    }
+
+    @Override
+    @PrimaryRead
+    @Transactional(readOnly = true)
+    public List<UserResponse> getUsersByIds(Collection<UUID> ids) {
+        Cache cache = cacheManager.getCache("userById");
+        Map<UUID, UserResponse> found = new HashMap<>();
+        List<UUID> missing = new ArrayList<>();
+        for (UUID id : new LinkedHashSet<>(ids)) {
+            UserResponse cached = cache != null ? cache.get(id, UserResponse.class) : null;
+            if (cached != null) {
+                found.put(id, cached);
+            } else {
+                missing.add(id);
+            }
+        }
+
+        // Same entries getUserById reads and the user write paths evict
+        if (!missing.isEmpty()) {
+            for (User user : userRepository.findAllById(missing)) {
+                UserResponse response = userMapper.toResponse(user);
+                found.put(user.getId(), response);
+                if (cache != null) {
+                    cache.put(user.getId(), response);
+                }
+            }
+        }
+
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        boolean isLibrarian = auth.getAuthorities().stream()
+                .anyMatch(a -> a.getAuthority().equals("ROLE_LIBRARIAN"));
+
+        return new LinkedHashSet<>(ids).stream()
+                .map(found::get)
+                .filter(Objects::nonNull)
+                .filter(user -> isLibrarian || user.getEmail().equals(auth.getName()))
+                .toList();
+    }
+
 
     @CacheEvict(value = "userById", key = "#id")
     @Override
@@ -169,6 +235,7 @@ public class UserServiceImpl implements UserService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public UserStatisticsResponse getUserStatistics(UUID userId) {
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new NotFoundException("User not found"));
@@ -0,0 +1,98 @@
+-- Baseline: the schema previously created by spring.jpa.hibernate.ddl-auto=update.
+-- Databases created that way are baselined at version 0 (spring.flyway.baseline-on-migrate),
+-- so this script also runs there and only adds the tables that are still missing.
+
+create table if not exists authors (
+    id         uuid         not null primary key,
+    name       varchar(255) not null,
+    created_at timestamp(6) not null,
+    updated_at timestamp(6)
+);
+
+create table if not exists book (
+    id             uuid         not null primary key,
+    title          varchar(255) not null,
+    isbn           varchar(255) not null unique,
+    author_id      uuid         not null references authors (id),
+    published_date date         not null,
+    genre          varchar(255) not null check (genre in ('FICTION','NON_FICTION','SCIENCE','HISTORY','ROMANCE','FANTASY','BIOGRAPHY','MYSTERY','HORROR','ART','TECHNOLOGY','OTHER')),
+    page_count     integer      not null,
+    count          integer      not null,
+    is_available   boolean      not null,
+    created_at     timestamp(6) not null,
+    updated_at     timestamp(6)
+);
+
+create table if not exists users (
+    id                    uuid         not null primary key,
+    full_name             varchar(255) not null,
+    email                 varchar(255) not null unique,
+    password              varchar(255) not null,
+    phone                 varchar(255),
+    role                  varchar(255) not null check (role in ('GUEST','PATRON','LIBRARIAN')),
+    level                 varchar(255) check (level in ('NOVICE','READER','BOOKWORM','BIBLIOPHILE')),
+    score                 integer      not null,
+    deleted               boolean      not null,
+    total_borrowed_books  integer      not null,
+    total_returned_books  integer      not null,
+    total_late_returns    integer      not null,
+    total_read_pages      integer      not null,
+    total_reading_days    integer      not null,
+    streak_timely_returns integer      not null,
+    active_borrow_count   integer      not null default 0,
+    active_borrow_days    integer      not null default 0,
+    created_at            timestamp(6) not null,
+    updated_at            timestamp(6)
+);
+
+create table if not exists borrows (
+    id          uuid         not null primary key,
+    book_id     uuid references book (id),
+    user_id     uuid references users (id),
+    borrow_date date         not null,
+    due_date    date,
+    return_date date,
+    returned    boolean      not null,
+    created_at  timestamp(6) not null,
+    updated_at  timestamp(6)
+);
+
+create table if not exists borrows_archive (
+    id          uuid         not null primary key,
+    book_id     uuid references book (id),
+    user_id     uuid references users (id),
+    borrow_date date         not null,
+    due_date    date,
+    return_date date,
+    returned    boolean      not null,
+    archived_at timestamp(6) not null,
+    created_at  timestamp(6) not null,
+    updated_at  timestamp(6)
+);
+
+create table if not exists gamification_events (
+    id          uuid         not null primary key,
+    user_id     uuid         not null,
+    borrow_id   uuid         not null,
+    borrow_date date         not null,
+    due_date    date         not null,
+    return_date date         not null,
+    page_count  integer      not null,
+    created_at  timestamp(6) not null,
+    updated_at  timestamp(6)
+);
+
+create index if not exists idx_gamification_events_user on gamification_events (user_id, created_at);
+
+create table if not exists idempotency_records (
+    id              uuid          not null primary key,
+    principal       varchar(255)  not null,
+    idempotency_key varchar(255)  not null,
+    operation       varchar(50)   not null,
+    request_hash    varchar(64)   not null,
+    response_body   varchar(4000),
+    expires_at      timestamp(6)  not null,
+    created_at      timestamp(6)  not null,
+    updated_at      timestamp(6),
+    constraint uk_idempotency_principal_key unique (principal, idempotency_key)
+);
@@ -0,0 +1,31 @@
+-- Indexes for the query shapes used by the repositories.
+
+-- BorrowRepository: existsByUserAndReturnedFalse, findSummariesByUserId, ledger reconciliation
+create index idx_borrows_user_returned on borrows (user_id, returned);
+
+-- BorrowRepository: countByBookIdAndReturnedFalse, existsByBookAndUserAndReturnedFalse
+create index idx_borrows_book_returned on borrows (book_id, returned);
+
+-- BorrowRepository: findByReturnedFalseAndDueDateBefore, findOverdueSummaries
+create index idx_borrows_overdue on borrows (due_date) where returned = false;
+
+-- BorrowRepository: findArchivableIds
+create index idx_borrows_archivable on borrows (return_date) where returned = true;
+
+-- BorrowArchiveRepository: findSummariesByUserId / findSummariesByUserEmail, countByBookTitle
+create index idx_borrows_archive_user on borrows_archive (user_id);
+create index idx_borrows_archive_book on borrows_archive (book_id);
+
+-- AuthorRepository: findByNameIgnoreCase / existsByNameIgnoreCase; one author per name regardless of case
+create unique index uk_authors_name_lower on authors (lower(name));
+
+-- BookRepository: author joins and the "containing, ignore case" searches on title, isbn and author name
+create index idx_book_author on book (author_id);
+
+create extension if not exists pg_trgm;
+create index idx_book_title_trgm on book using gin (upper(title) gin_trgm_ops);
+create index idx_book_isbn_trgm on book using gin (upper(isbn) gin_trgm_ops);
+create index idx_authors_name_trgm on authors using gin (upper(name) gin_trgm_ops);
+
+-- IdempotencyRecordRepository: deleteAllExpired
+create index idx_idempotency_records_expires on idempotency_records (expires_at);
@@ -0,0 +1,15 @@
+-- Columns added to tables that already existed in the release that ran with ddl-auto=update.
+-- On a database baselined at version 0, V1 skips those tables, so the columns are added here
+-- and filled from the active borrows. On a fresh database the backfill changes no rows.
+
+alter table users add column if not exists active_borrow_count integer not null default 0;
+alter table users add column if not exists active_borrow_days integer not null default 0;
+
+update users u
+set active_borrow_count = a.borrow_count,
+    active_borrow_days  = a.borrow_days
+from (select b.user_id, count(*) as borrow_count, coalesce(sum(b.due_date - b.borrow_date), 0) as borrow_days
+      from borrows b
+      where b.returned = false
+      group by b.user_id) a
+where u.id = a.user_id;
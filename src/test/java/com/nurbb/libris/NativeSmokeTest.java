@@ -0,0 +1,89 @@
+package com.nurbb.libris;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nurbb.libris.model.dto.request.AuthRequest;
+import com.nurbb.libris.model.dto.request.BookRequest;
+import com.nurbb.libris.model.entity.valueobject.Genre;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * End-to-end checks of the paths that depend on native-image hints: a real JWT login (jjwt),
+ * entity persistence and MapStruct mapping, the JPQL projections and the springdoc endpoints.
+ * Runs on the JVM with the regular suite and as the only suite of the native test image
+ * ({@code mvn -PnativeTest test}), both against the in-memory H2 database.
+ */
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class NativeSmokeTest {
+
+    @Autowired private MockMvc mockMvc;
+    @Autowired private ObjectMapper objectMapper;
+
+    @Test
+    void shouldServeCatalogWithRealJwt() throws Exception {
+        String login = mockMvc.perform(post("/api/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new AuthRequest("admin@libris.com", "admin123"))))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        String bearer = "Bearer " + objectMapper.readTree(login).get("token").asText();
+
+        String title = "Native " + UUID.randomUUID();
+        BookRequest book = new BookRequest();
+        book.setTitle(title);
+        book.setAuthorName("Native Author");
+        book.setIsbn(UUID.randomUUID().toString());
+        book.setPublishedDate(LocalDate.of(2021, 3, 1));
+        book.setGenre(Genre.SCIENCE);
+        book.setPageCount(120);
+        book.setCount(2);
+
+        mockMvc.perform(post("/api/books")
+                        .header(HttpHeaders.AUTHORIZATION, bearer)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(book)))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.authorName").value("Native Author"));
+
+        mockMvc.perform(get("/api/books/search")
+                        .header(HttpHeaders.AUTHORIZATION, bearer)
+                        .param("query", title))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].title").value(title));
+
+        mockMvc.perform(get("/api/borrows").header(HttpHeaders.AUTHORIZATION, bearer))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/api/statistics/overdue").header(HttpHeaders.AUTHORIZATION, bearer))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void shouldRejectMissingToken() throws Exception {
+        mockMvc.perform(get("/api/books"))
+                .andExpect(status().is4xxClientError());
+    }
+
+    @Test
+    void shouldServeApiDocsAndHealth() throws Exception {
+        mockMvc.perform(get("/v3/api-docs"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.paths['/api/books']").exists());
+        mockMvc.perform(get("/actuator/health"))
+                .andExpect(status().isOk());
+    }
+}
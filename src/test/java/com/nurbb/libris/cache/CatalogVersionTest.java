@@ -0,0 +1,55 @@
+package com.nurbb.libris.cache;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CatalogVersionTest {
+
+    private final Clock clock = Clock.fixed(Instant.ofEpochMilli(1_700_000_000_250L), ZoneOffset.UTC);
+
+    private static ServletWebRequest request(MockHttpServletResponse response, String header, String value) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/books");
+        if (header != null) {
+            request.addHeader(header, value);
+        }
+        return new ServletWebRequest(request, response);
+    }
+
+    @Test
+    void checkNotModified_shouldNotSendValidatorsWithoutSharedTierOrSingleNode() {
+        CatalogVersion catalogVersion = new CatalogVersion(null, null, null, false, clock);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        assertFalse(catalogVersion.checkNotModified(request(response, HttpHeaders.IF_NONE_MATCH, catalogVersion.etag())));
+        assertNull(response.getHeader(HttpHeaders.ETAG));
+        assertNull(response.getHeader(HttpHeaders.LAST_MODIFIED));
+    }
+
+    @Test
+    void changed_shouldMoveLastModifiedToALaterSecondWithinTheSameSecond() {
+        CatalogVersion catalogVersion = new CatalogVersion(null, null, null, true, clock);
+
+        catalogVersion.changed();
+        MockHttpServletResponse first = new MockHttpServletResponse();
+        assertFalse(catalogVersion.checkNotModified(request(first, null, null)));
+        String lastModified = first.getHeader(HttpHeaders.LAST_MODIFIED);
+
+        MockHttpServletResponse unchanged = new MockHttpServletResponse();
+        assertTrue(catalogVersion.checkNotModified(request(unchanged, HttpHeaders.IF_MODIFIED_SINCE, lastModified)));
+
+        catalogVersion.changed();
+        MockHttpServletResponse second = new MockHttpServletResponse();
+        assertFalse(catalogVersion.checkNotModified(request(second, HttpHeaders.IF_MODIFIED_SINCE, lastModified)));
+        assertNotEquals(lastModified, second.getHeader(HttpHeaders.LAST_MODIFIED));
+        assertEquals(0, catalogVersion.lastModified() % 1000);
+    }
+}
@@ -0,0 +1,94 @@
+package com.nurbb.libris.cache;
+
+import com.nurbb.libris.model.dto.response.UserResponse;
+import com.nurbb.libris.model.entity.Author;
+import com.nurbb.libris.model.entity.Book;
+import com.nurbb.libris.model.entity.User;
+import com.nurbb.libris.model.entity.valueobject.Genre;
+import com.nurbb.libris.model.entity.valueobject.Role;
+import com.nurbb.libris.repository.AuthorRepository;
+import com.nurbb.libris.repository.BookRepository;
+import com.nurbb.libris.repository.UserRepository;
+import com.nurbb.libris.service.UserService;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = "libris.cache.remote.type=in-memory")
+@ActiveProfiles("test")
+class RemoteCacheConfigTest {
+
+    @Autowired private CacheManager cacheManager;
+    @Autowired private UserService userService;
+    @Autowired private AuthorRepository authorRepository;
+    @Autowired private BookRepository bookRepository;
+    @Autowired private UserRepository userRepository;
+    @Autowired private RemoteCacheTier remoteCacheTier;
+    @Autowired private CatalogVersion catalogVersion;
+    @Autowired private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void cacheManager_shouldOnlyWrapConfiguredCaches() {
+        assertInstanceOf(TwoLevelCache.class, cacheManager.getCache("userById"));
+        assertInstanceOf(TwoLevelCache.class, cacheManager.getCache("borrowHistory"));
+        assertFalse(cacheManager.getCache("bookList") instanceof TwoLevelCache);
+        assertFalse(cacheManager.getCache("authorList") instanceof TwoLevelCache);
+    }
+
+    @Test
+    void getUserById_shouldBeServedFromSharedTierAfterNearCacheMiss() {
+        User user = new User();
+        user.setEmail("shared_" + UUID.randomUUID() + "@libris.com");
+        user.setPassword("password");
+        user.setRole(Role.PATRON);
+        user.setFullName("Shared Tier Patron");
+        user = userRepository.save(user);
+
+        UserResponse loaded = userService.getUserById(user.getId());
+
+        // Simulates another node: nothing in the near-cache, the value is only in the shared tier
+        TwoLevelCache userById = (TwoLevelCache) cacheManager.getCache("userById");
+        userById.getNativeCache().invalidateAll();
+        userRepository.delete(user);
+
+        assertEquals(loaded, userService.getUserById(user.getId()));
+        assertNotNull(userById.getNativeCache().getIfPresent(user.getId().toString()));
+    }
+
+    @Test
+    void catalogueChangeOnAnotherNode_shouldEvictCachedBooksAndAuthors() {
+        Author author = new Author();
+        author.setName("Remote Change Author " + UUID.randomUUID());
+        author = authorRepository.save(author);
+
+        Book book = new Book();
+        book.setTitle("Remote Change Book");
+        book.setIsbn(UUID.randomUUID().toString().substring(0, 13));
+        book.setAuthor(author);
+        book.setPageCount(100);
+        book.setGenre(Genre.SCIENCE);
+        book.setCount(2);
+        book.setAvailable(true);
+        book.setPublishedDate(LocalDate.of(2020, 5, 1));
+        book = bookRepository.save(book);
+        bookRepository.findById(book.getId()).orElseThrow();
+        authorRepository.findById(author.getId()).orElseThrow();
+        assertTrue(entityManagerFactory.getCache().contains(Book.class, book.getId()));
+        assertTrue(entityManagerFactory.getCache().contains(Author.class, author.getId()));
+        String etag = catalogVersion.etag();
+
+        remoteCacheTier.publish(new CacheInvalidation("another-node", CatalogVersion.INVALIDATION_NAME, null));
+
+        assertNotEquals(etag, catalogVersion.etag());
+        assertFalse(entityManagerFactory.getCache().contains(Book.class, book.getId()));
+        assertFalse(entityManagerFactory.getCache().contains(Author.class, author.getId()));
+    }
+}
@@ -0,0 +1,175 @@
+package com.nurbb.libris.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.HttpMediaTypeNotAcceptableException;
+import org.springframework.web.accept.ContentNegotiationManager;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.time.Clock;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SerializedResponseCacheTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final AtomicInteger loads = new AtomicInteger();
+
+    private CatalogVersion catalogVersion;
+    private SerializedResponseCache cache;
+
+    @BeforeEach
+    void setUp() {
+        catalogVersion = new CatalogVersion(null, null, null, true, Clock.systemUTC());
+        cache = new SerializedResponseCache(catalogVersion, objectMapper, Jackson2ObjectMapperBuilder.json(),
+                new ContentNegotiationManager(), DataSize.ofBytes(64), DataSize.ofMegabytes(1));
+    }
+
+    private List<String> load(int size) {
+        loads.incrementAndGet();
+        return Collections.nCopies(size, "book");
+    }
+
+    @Test
+    void get_shouldEncodeOncePerCatalogVersion() throws IOException {
+        byte[] first = cache.get("bookList", MediaType.APPLICATION_JSON, () -> load(3)).body();
+        byte[] second = cache.get("bookList", MediaType.APPLICATION_JSON, () -> load(3)).body();
+
+        assertSame(first, second);
+        assertEquals(1, loads.get());
+        assertEquals(List.of("book", "book", "book"), objectMapper.readValue(first, List.class));
+
+        catalogVersion.changed();
+        cache.get("bookList", MediaType.APPLICATION_JSON, () -> load(4));
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void get_shouldDropEntriesOfOlderCatalogVersions() {
+        cache.get("bookList", MediaType.APPLICATION_JSON, () -> load(3));
+        cache.get("bookList:title", MediaType.APPLICATION_JSON, () -> load(3));
+        cache.get("authorList", MediaType.APPLICATION_CBOR, () -> load(3));
+        assertEquals(3, cache.estimatedSize());
+
+        catalogVersion.changed();
+        cache.get("bookList", MediaType.APPLICATION_JSON, () -> load(4));
+        assertEquals(1, cache.estimatedSize());
+    }
+
+    @Test
+    void get_shouldLoadOnceForConcurrentRequestsWithoutBlockingOtherKeys() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<byte[]> first = CompletableFuture.supplyAsync(() -> cache.get("bookList", MediaType.APPLICATION_JSON, () -> {
+            started.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+            return load(3);
+        }).body());
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        CompletableFuture<byte[]> second = CompletableFuture.supplyAsync(
+                () -> cache.get("bookList", MediaType.APPLICATION_JSON, () -> load(3)).body());
+
+        // Other names and media types are served while the slow load is still running
+        cache.get("bookList", MediaType.APPLICATION_CBOR, () -> load(3));
+        cache.get("bookList:title", MediaType.APPLICATION_JSON, () -> load(3));
+        assertEquals(2, loads.get());
+
+        release.countDown();
+        assertSame(first.get(5, TimeUnit.SECONDS), second.get(5, TimeUnit.SECONDS));
+        assertEquals(3, loads.get());
+    }
+
+    @Test
+    void get_shouldBoundTheEncodedBytes() {
+        SerializedResponseCache bounded = new SerializedResponseCache(catalogVersion, objectMapper,
+                Jackson2ObjectMapperBuilder.json(), new ContentNegotiationManager(), DataSize.ofBytes(64),
+                DataSize.ofKilobytes(1));
+
+        for (int i = 0; i < 10; i++) {
+            bounded.get("bookList:" + i, MediaType.APPLICATION_JSON, () -> load(100));
+        }
+
+        assertEquals(10, loads.get());
+        assertTrue(bounded.estimatedSize() < 2);
+    }
+
+    @Test
+    void get_shouldKeepJsonAndCborApart() throws IOException {
+        byte[] json = cache.get("bookList", MediaType.APPLICATION_JSON, () -> load(3)).body();
+        SerializedResponseCache.SerializedResponse cbor = cache.get("bookList", MediaType.APPLICATION_CBOR, () -> load(3));
+
+        assertEquals(2, loads.get());
+        assertEquals(MediaType.APPLICATION_CBOR, cbor.toResponse(null).getHeaders().getContentType());
+        assertEquals(objectMapper.readValue(json, List.class), new CBORMapper().readValue(cbor.body(), List.class));
+    }
+
+    @Test
+    void negotiate_shouldPreferJsonUnlessCborIsAsked() throws HttpMediaTypeNotAcceptableException {
+        assertEquals(MediaType.APPLICATION_JSON, cache.negotiate(request("*/*")));
+        assertEquals(MediaType.APPLICATION_CBOR, cache.negotiate(request("application/cbor")));
+        assertEquals(MediaType.APPLICATION_CBOR, cache.negotiate(request("application/cbor, application/json;q=0.5")));
+    }
+
+    @Test
+    void negotiate_shouldRejectAcceptWithoutJsonOrCbor() {
+        assertThrows(HttpMediaTypeNotAcceptableException.class, () -> cache.negotiate(request("application/xml")));
+    }
+
+    @Test
+    void toResponse_shouldServeGzipCopyOnlyWhenAcceptedAndLargeEnough() throws IOException {
+        SerializedResponseCache.SerializedResponse large = cache.get("bookList", MediaType.APPLICATION_JSON, () -> load(100));
+
+        ResponseEntity<byte[]> gzipped = large.toResponse("gzip, deflate, br");
+        assertEquals("gzip", gzipped.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
+        assertArrayEquals(large.body(), new GZIPInputStream(new ByteArrayInputStream(gzipped.getBody())).readAllBytes());
+        assertTrue(gzipped.getBody().length < large.body().length);
+
+        ResponseEntity<byte[]> plain = large.toResponse(null);
+        assertNull(plain.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
+        assertSame(large.body(), plain.getBody());
+
+        SerializedResponseCache.SerializedResponse small = cache.get("authorList", MediaType.APPLICATION_JSON, () -> load(1));
+        assertNull(small.gzip());
+        assertSame(small.body(), small.toResponse("gzip").getBody());
+    }
+
+    @Test
+    void acceptsGzip_shouldHonourQualityValues() {
+        assertTrue(SerializedResponseCache.acceptsGzip("gzip"));
+        assertTrue(SerializedResponseCache.acceptsGzip("deflate, GZIP;q=0.5"));
+        assertTrue(SerializedResponseCache.acceptsGzip("br, *"));
+        assertFalse(SerializedResponseCache.acceptsGzip(null));
+        assertFalse(SerializedResponseCache.acceptsGzip("identity"));
+        assertFalse(SerializedResponseCache.acceptsGzip("gzip;q=0"));
+        assertFalse(SerializedResponseCache.acceptsGzip("gzip; q=0.000, deflate"));
+        assertFalse(SerializedResponseCache.acceptsGzip("*, gzip;q=0"));
+        assertFalse(SerializedResponseCache.acceptsGzip("*;q=0"));
+    }
+
+    private static ServletWebRequest request(String accept) {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader(HttpHeaders.ACCEPT, accept);
+        return new ServletWebRequest(request);
+    }
+}
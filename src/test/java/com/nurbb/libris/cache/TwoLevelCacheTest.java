@@ -0,0 +1,179 @@
+package com.nurbb.libris.cache;
+
+import com.fasterxml.jackson.annotation.JsonTypeInfo;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.jsontype.BasicPolymorphicTypeValidator;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.nurbb.libris.model.dto.response.BookResponse;
+import com.nurbb.libris.model.entity.valueobject.Genre;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.caffeine.CaffeineCache;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Two "nodes" sharing one {@link InMemoryRemoteCacheTier}.
+ */
+
+class TwoLevelCacheTest {
+
+    private static final Duration TTL = Duration.ofMinutes(30);
+
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .activateDefaultTyping(BasicPolymorphicTypeValidator.builder()
+                            .allowIfSubType("com.nurbb.libris.model.dto.")
+                            .allowIfSubType("java.")
+                            .build(),
+                    ObjectMapper.DefaultTyping.NON_FINAL, JsonTypeInfo.As.PROPERTY);
+
+    private InMemoryRemoteCacheTier remote;
+    private TwoLevelCache nodeA;
+    private TwoLevelCache nodeB;
+
+    @BeforeEach
+    void setUp() {
+        remote = new InMemoryRemoteCacheTier();
+        nodeA = node("node-a");
+        nodeB = node("node-b");
+    }
+
+    private TwoLevelCache node(String origin) {
+        TwoLevelCache cache = new TwoLevelCache(new CaffeineCache("bookList", Caffeine.newBuilder().maximumSize(100).build()),
+                remote, objectMapper, TTL, origin);
+        remote.subscribe(cache::onInvalidation);
+        return cache;
+    }
+
+    @Test
+    void get_shouldServeValueLoadedByAnotherNode() {
+        List<BookResponse> books = List.of(book("Dune"), book("Solaris"));
+        nodeA.get("all", () -> books);
+
+        List<?> shared = nodeB.get("all", () -> fail("value must come from the shared tier"));
+
+        assertEquals(books, shared);
+        assertNotNull(nodeB.getNativeCache().getIfPresent("all"));
+    }
+
+    @Test
+    void evict_shouldDropOtherNodesNearCacheEntry() {
+        nodeA.put("all", "v1");
+        assertEquals("v1", nodeB.get("all", () -> "unused"));
+
+        nodeA.evict("all");
+
+        assertNull(nodeB.getNativeCache().getIfPresent("all"));
+        assertEquals("v2", nodeB.get("all", () -> "v2"));
+    }
+
+    @Test
+    void put_shouldNotDropOtherNodesNearCacheEntry() {
+        nodeB.get("all", () -> "v1");
+
+        // A non-sync @Cacheable miss on node A fills through get + put
+        assertNull(nodeA.get("all2"));
+        nodeA.put("all2", "v2");
+
+        assertEquals("v1", nodeB.getNativeCache().getIfPresent("all"));
+        assertEquals("v2", nodeB.get("all2", () -> fail("value must come from the shared tier")));
+    }
+
+    @Test
+    void clear_shouldDropEveryEntryOnEveryNode() {
+        nodeA.put("a", "1");
+        nodeA.put("b", "2");
+        nodeB.get("a", () -> "unused");
+
+        nodeA.clear();
+
+        assertEquals(0, nodeB.getNativeCache().estimatedSize());
+        assertNull(remote.get("libris:cache:bookList::b"));
+        assertNull(nodeB.get("b"));
+    }
+
+    @Test
+    void invalidate_shouldOnlyDropThisNodesNearCache() {
+        nodeA.put("a", "1");
+        nodeB.get("a", () -> "unused");
+
+        assertTrue(nodeA.invalidate());
+
+        assertEquals(0, nodeA.getNativeCache().estimatedSize());
+        assertEquals("1", nodeB.getNativeCache().getIfPresent("a"));
+        assertNotNull(remote.get("libris:cache:bookList::a"));
+        assertFalse(nodeA.invalidate());
+    }
+
+    @Test
+    void get_shouldFallBackToLocalCacheWhenSharedTierFails() {
+        TwoLevelCache cache = new TwoLevelCache(new CaffeineCache("bookList", Caffeine.newBuilder().build()),
+                new FailingTier(), objectMapper, TTL, "node-c");
+
+        assertEquals("loaded", cache.get("all", () -> "loaded"));
+        assertEquals("loaded", cache.get("all", () -> fail("value must come from the near-cache")));
+        assertDoesNotThrow(() -> cache.evict("all"));
+        assertNull(cache.get("all"));
+    }
+
+    @Test
+    void get_shouldTreatUnreadableSharedEntryAsMiss() {
+        remote.put("libris:cache:bookList::all", "{not json", TTL);
+
+        assertEquals("reloaded", nodeA.get("all", () -> "reloaded"));
+    }
+
+    private static BookResponse book(String title) {
+        return BookResponse.builder()
+                .id(UUID.randomUUID())
+                .title(title)
+                .authorName("Author")
+                .isbn("978-0000000000")
+                .publishedDate(LocalDate.of(1965, 8, 1))
+                .genre(Genre.SCIENCE)
+                .count(2)
+                .pageCount(412)
+                .isAvailable(true)
+                .build();
+    }
+
+    private static class FailingTier implements RemoteCacheTier {
+
+        @Override
+        public String get(String key) {
+            throw new IllegalStateException("connection refused");
+        }
+
+        @Override
+        public void put(String key, String value, Duration ttl) {
+            throw new IllegalStateException("connection refused");
+        }
+
+        @Override
+        public void delete(String key) {
+            throw new IllegalStateException("connection refused");
+        }
+
+        @Override
+        public void deleteByPrefix(String prefix) {
+            throw new IllegalStateException("connection refused");
+        }
+
+        @Override
+        public void publish(CacheInvalidation invalidation) {
+            throw new IllegalStateException("connection refused");
+        }
+
+        @Override
+        public void subscribe(Consumer<CacheInvalidation> listener) {
+        }
+    }
+}
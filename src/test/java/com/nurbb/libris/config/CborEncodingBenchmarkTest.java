@@ -0,0 +1,106 @@
+package com.nurbb.libris.config;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.nurbb.libris.model.dto.response.BookResponse;
+import com.nurbb.libris.model.dto.response.BorrowResponse;
+import com.nurbb.libris.model.entity.valueobject.Genre;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Payload size and encode/decode time of a 2,000 element book and borrow list, JSON versus CBOR, with the
+ * mappers configured the way the application builds them. Timings are logged (median of 15 runs after
+ * warm-up) and not asserted; only the size and the round trip are.
+ */
+
+@Slf4j
+class CborEncodingBenchmarkTest {
+
+    private static final int ITEMS = 2_000;
+    private static final int WARMUP = 10;
+    private static final int RUNS = 15;
+
+    private final ObjectMapper json = builder().build();
+    private final ObjectMapper cbor = ContentNegotiationConfig.cborMapper(builder());
+
+    private static Jackson2ObjectMapperBuilder builder() {
+        // Spring Boot's default for JSON
+        return Jackson2ObjectMapperBuilder.json().featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+    }
+
+    @Test
+    void bookList() throws Exception {
+        List<BookResponse> books = IntStream.range(0, ITEMS)
+                .mapToObj(i -> BookResponse.builder()
+                        .id(UUID.randomUUID())
+                        .title("Book title number " + i)
+                        .authorName("Author " + (i % 300))
+                        .isbn("978-" + (1_000_000_000L + i))
+                        .publishedDate(LocalDate.of(1950 + i % 70, 1 + i % 12, 1 + i % 28))
+                        .genre(Genre.values()[i % Genre.values().length])
+                        .count(1 + i % 5)
+                        .pageCount(100 + i % 900)
+                        .isAvailable(i % 3 != 0)
+                        .createdAt(LocalDateTime.of(2024, 1, 1, 10, 0).plusMinutes(i).toString())
+                        .updatedAt(LocalDateTime.of(2024, 6, 1, 10, 0).plusMinutes(i).toString())
+                        .build())
+                .toList();
+        compare("BookResponse", books, new TypeReference<List<BookResponse>>() {});
+    }
+
+    @Test
+    void borrowList() throws Exception {
+        List<BorrowResponse> borrows = IntStream.range(0, ITEMS)
+                .mapToObj(i -> new BorrowResponse(UUID.randomUUID(), "Book title number " + i, "Patron " + (i % 500),
+                        LocalDate.of(2024, 1, 1).plusDays(i % 300), LocalDate.of(2024, 1, 15).plusDays(i % 300),
+                        i % 2 == 0 ? LocalDate.of(2024, 1, 10).plusDays(i % 300) : null, i % 2 == 0,
+                        LocalDateTime.of(2024, 1, 1, 10, 0).plusMinutes(i).toString(),
+                        LocalDateTime.of(2024, 1, 2, 10, 0).plusMinutes(i).toString()))
+                .toList();
+        compare("BorrowResponse", borrows, new TypeReference<List<BorrowResponse>>() {});
+    }
+
+    private <T> void compare(String name, List<T> value, TypeReference<List<T>> type) throws Exception {
+        byte[] jsonBytes = json.writeValueAsBytes(value);
+        byte[] cborBytes = cbor.writeValueAsBytes(value);
+
+        assertEquals(value, json.readValue(jsonBytes, type));
+        assertEquals(value, cbor.readValue(cborBytes, type));
+        assertTrue(cborBytes.length < jsonBytes.length);
+
+        log.info("{} x {}: JSON {} bytes, encode {} µs, decode {} µs | CBOR {} bytes, encode {} µs, decode {} µs",
+                name, ITEMS,
+                jsonBytes.length, median(() -> json.writeValueAsBytes(value)), median(() -> json.readValue(jsonBytes, type)),
+                cborBytes.length, median(() -> cbor.writeValueAsBytes(value)), median(() -> cbor.readValue(cborBytes, type)));
+    }
+
+    private interface Operation {
+        void run() throws Exception;
+    }
+
+    private static long median(Operation operation) throws Exception {
+        for (int i = 0; i < WARMUP; i++) {
+            operation.run();
+        }
+        long[] micros = new long[RUNS];
+        for (int i = 0; i < RUNS; i++) {
+            long start = System.nanoTime();
+            operation.run();
+            micros[i] = (System.nanoTime() - start) / 1_000;
+        }
+        Arrays.sort(micros);
+        return micros[RUNS / 2];
+    }
+}
@@ -0,0 +1,55 @@
+package com.nurbb.libris.config;
+
+import net.ttddyy.dsproxy.proxy.ProxyJdbcObject;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.TypeReference;
+import org.springframework.aot.hint.predicate.RuntimeHintsPredicates;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LibrisRuntimeHintsTest {
+
+    private RuntimeHints hints;
+
+    @BeforeEach
+    void setUp() {
+        hints = new RuntimeHints();
+        new LibrisRuntimeHints().registerHints(hints, getClass().getClassLoader());
+    }
+
+    @Test
+    void shouldRegisterEntitiesAndDtosForReflection() {
+        LibrisRuntimeHints.ENTITIES.forEach(type -> assertTrue(RuntimeHintsPredicates.reflection()
+                .onType(type).withMemberCategories(MemberCategory.DECLARED_FIELDS,
+                        MemberCategory.INVOKE_DECLARED_CONSTRUCTORS).test(hints), type.getName()));
+        LibrisRuntimeHints.DTOS.forEach(type -> assertTrue(RuntimeHintsPredicates.reflection()
+                .onType(type).withMemberCategories(MemberCategory.DECLARED_FIELDS,
+                        MemberCategory.INVOKE_PUBLIC_METHODS).test(hints), type.getName()));
+    }
+
+    @Test
+    void shouldRegisterMappersAndJjwtImplementationsThatExistOnTheClassPath() {
+        LibrisRuntimeHints.MAPPERS.forEach(name -> {
+            assertDoesNotThrow(() -> Class.forName(name), name);
+            assertTrue(RuntimeHintsPredicates.reflection().onType(TypeReference.of(name)).test(hints), name);
+        });
+        LibrisRuntimeHints.JJWT_IMPLEMENTATIONS.forEach(name -> {
+            assertDoesNotThrow(() -> Class.forName(name), name);
+            assertTrue(RuntimeHintsPredicates.reflection().onType(TypeReference.of(name)).test(hints), name);
+        });
+        assertTrue(RuntimeHintsPredicates.resource()
+                .forResource("META-INF/services/io.jsonwebtoken.io.Serializer").test(hints));
+    }
+
+    @Test
+    void shouldRegisterDatasourceProxyInterfacesAndResources() {
+        LibrisRuntimeHints.JDBC_PROXY_TYPES.forEach(type -> assertTrue(RuntimeHintsPredicates.proxies()
+                .forInterfaces(ProxyJdbcObject.class, type).test(hints), type.getName()));
+        assertTrue(RuntimeHintsPredicates.resource().forResource("db/migration/V1__baseline_schema.sql").test(hints));
+        assertTrue(RuntimeHintsPredicates.resource()
+                .forResource("META-INF/maven/org.webjars/swagger-ui/pom.properties").test(hints));
+    }
+}
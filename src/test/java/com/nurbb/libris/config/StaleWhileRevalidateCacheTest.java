@@ -0,0 +1,113 @@
+package com.nurbb.libris.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.caffeine.CaffeineCache;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StaleWhileRevalidateCacheTest {
+
+    private static final String KEY = "report";
+
+    private StaleWhileRevalidateCache cache;
+    private ExecutorService executor;
+
+    @BeforeEach
+    void setUp() {
+        cache = new StaleWhileRevalidateCache(new CaffeineCache("libraryStatistics", Caffeine.newBuilder().build()));
+        executor = Executors.newFixedThreadPool(8);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void get_shouldRunOneLoaderForConcurrentMisses() throws Exception {
+        AtomicInteger calls = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+
+        List<Future<String>> results = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            results.add(executor.submit(() -> cache.get(KEY, () -> {
+                calls.incrementAndGet();
+                release.await();
+                return "fresh";
+            })));
+        }
+        Thread.sleep(200);
+        release.countDown();
+
+        for (Future<String> result : results) {
+            assertEquals("fresh", result.get(5, TimeUnit.SECONDS));
+        }
+        assertEquals(1, calls.get());
+    }
+
+    @Test
+    void get_shouldServeStaleValueWhileOneCallerRevalidates() throws Exception {
+        cache.put(KEY, "old");
+        cache.clear();
+        assertTrue(cache.isStale(KEY));
+
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Future<String> revalidation = executor.submit(() -> cache.get(KEY, () -> {
+            loading.countDown();
+            release.await();
+            return "new";
+        }));
+        assertTrue(loading.await(5, TimeUnit.SECONDS));
+
+        assertEquals("old", cache.get(KEY, () -> fail("a second loader must not run")));
+
+        release.countDown();
+        assertEquals("new", revalidation.get(5, TimeUnit.SECONDS));
+        assertFalse(cache.isStale(KEY));
+        assertEquals("new", cache.get(KEY, () -> fail("fresh value must be served from cache")));
+    }
+
+    @Test
+    void get_shouldKeepValueStaleWhenEvictedDuringLoad() throws Exception {
+        cache.put(KEY, "old");
+        cache.evict(KEY);
+
+        String loaded = cache.get(KEY, () -> {
+            cache.clear();
+            return "computed before the write";
+        });
+
+        assertEquals("computed before the write", loaded);
+        assertTrue(cache.isStale(KEY));
+        assertEquals("recomputed", cache.get(KEY, () -> "recomputed"));
+    }
+
+    @Test
+    void get_shouldPropagateLoaderFailureAndAllowRetry() {
+        assertThrows(Cache.ValueRetrievalException.class,
+                () -> cache.get(KEY, () -> { throw new IllegalStateException("database down"); }));
+        assertEquals("ok", cache.get(KEY, () -> "ok"));
+    }
+
+    @Test
+    void invalidate_shouldDropEntries() {
+        cache.put(KEY, "old");
+        cache.invalidate();
+        assertNull(cache.get(KEY));
+        assertFalse(cache.isStale(KEY));
+    }
+}
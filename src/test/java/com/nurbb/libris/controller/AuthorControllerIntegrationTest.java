@@ -9,6 +9,7 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.context.ActiveProfiles;
@@ -127,4 +128,86 @@ class AuthorControllerIntegrationTest {
         mockMvc.perform(delete("/api/authors/" + authorId))
                 .andExpect(status().isBadRequest());
     }
+
+    @Test
+    @WithMockUser(roles = {"LIBRARIAN"})
+    void shouldListNewBookOfAuthorAndDropDeletedAuthor() throws Exception {
+        String response = mockMvc.perform(post("/api/authors")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(authorRequest)))
+                .andReturn().getResponse().getContentAsString();
+        String authorId = objectMapper.readTree(response).get("id").asText();
+        String authorPath = "$[?(@.id == '" + authorId + "')]";
+
+        // Fill authorById and authorList
+        mockMvc.perform(get("/api/authors/" + authorId))
+                .andExpect(jsonPath("$.books").isEmpty());
+        mockMvc.perform(get("/api/authors"))
+                .andExpect(jsonPath(authorPath).exists());
+
+        BookRequest bookRequest = new BookRequest();
+        bookRequest.setTitle("Cached Author Book");
+        bookRequest.setAuthorName(authorRequest.getName());
+        bookRequest.setIsbn(UUID.randomUUID().toString().substring(0, 13));
+        bookRequest.setPublishedDate(LocalDate.now());
+        bookRequest.setGenre(Genre.FICTION);
+        bookRequest.setPageCount(100);
+        bookRequest.setCount(1);
+        mockMvc.perform(post("/api/books")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(bookRequest)))
+                .andExpect(status().isCreated());
+
+        mockMvc.perform(get("/api/authors/" + authorId))
+                .andExpect(jsonPath("$.books[0]").value("Cached Author Book"));
+        mockMvc.perform(get("/api/authors"))
+                .andExpect(jsonPath(authorPath + ".books[0]").value("Cached Author Book"));
+
+        AuthorRequest empty = new AuthorRequest();
+        empty.setName("Test Author " + UUID.randomUUID());
+        String emptyId = objectMapper.readTree(mockMvc.perform(post("/api/authors")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(empty)))
+                .andReturn().getResponse().getContentAsString()).get("id").asText();
+        mockMvc.perform(get("/api/authors"))
+                .andExpect(jsonPath("$[?(@.id == '" + emptyId + "')]").exists());
+        mockMvc.perform(get("/api/authors/" + emptyId))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(delete("/api/authors/" + emptyId))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/authors"))
+                .andExpect(jsonPath("$[?(@.id == '" + emptyId + "')]").doesNotExist());
+        mockMvc.perform(get("/api/authors/" + emptyId))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    @WithMockUser(roles = {"LIBRARIAN"})
+    void shouldRevalidateAuthorAfterCatalogChange() throws Exception {
+        String response = mockMvc.perform(post("/api/authors")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(authorRequest)))
+                .andReturn().getResponse().getContentAsString();
+        String authorId = objectMapper.readTree(response).get("id").asText();
+
+        String etag = mockMvc.perform(get("/api/authors/" + authorId))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(get("/api/authors/" + authorId).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+
+        AuthorRequest other = new AuthorRequest();
+        other.setName("Test Author " + UUID.randomUUID());
+        mockMvc.perform(post("/api/authors")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(other)))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/authors/" + authorId).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").value(authorId));
+    }
 }
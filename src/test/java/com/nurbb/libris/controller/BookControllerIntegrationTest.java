@@ -1,13 +1,18 @@
 package com.nurbb.libris.controller;
 
+import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.nurbb.libris.model.dto.request.BookRequest;
 import com.nurbb.libris.model.entity.valueobject.Genre;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.annotation.DirtiesContext;
@@ -15,8 +20,14 @@ import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
 
 import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
 import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
+import static org.hamcrest.Matchers.startsWith;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -33,6 +44,9 @@ class BookControllerIntegrationTest {
     @Autowired
     private ObjectMapper objectMapper;
 
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
     private BookRequest bookRequest;
 
     @BeforeEach
@@ -120,4 +134,170 @@ class BookControllerIntegrationTest {
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.length()").value(1));
     }
+
+    @Test
+    @WithMockUser(roles = "PATRON")
+    void shouldAnswerUnchangedCatalogWithNotModified() throws Exception {
+        String etag = mockMvc.perform(get("/api/books"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, startsWith("W/\"")))
+                .andExpect(header().exists(HttpHeaders.LAST_MODIFIED))
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-cache, private"))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        statistics.clear();
+
+        mockMvc.perform(get("/api/books").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, etag))
+                .andExpect(content().string(""));
+        assertEquals(0, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    @WithMockUser(roles = "LIBRARIAN")
+    void shouldChangeEtagAfterBookIsAdded() throws Exception {
+        String etag = mockMvc.perform(get("/api/books"))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(post("/api/books")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(bookRequest)))
+                .andExpect(status().isCreated());
+
+        mockMvc.perform(get("/api/books").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1));
+    }
+
+    @Test
+    @WithMockUser(roles = "LIBRARIAN")
+    void shouldServeUpdatedBookUnderNewEtag() throws Exception {
+        String created = mockMvc.perform(post("/api/books")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(bookRequest)))
+                .andReturn().getResponse().getContentAsString();
+        String bookId = objectMapper.readTree(created).get("id").asText();
+
+        String etag = mockMvc.perform(get("/api/books"))
+                .andExpect(jsonPath("$[0].title").value("Test Kitabı"))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        bookRequest.setTitle("Güncellenmiş Kitap");
+        mockMvc.perform(put("/api/books/" + bookId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(bookRequest)))
+                .andExpect(status().isOk());
+
+        String updatedEtag = mockMvc.perform(get("/api/books").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].title").value("Güncellenmiş Kitap"))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(get("/api/books").header(HttpHeaders.IF_NONE_MATCH, updatedEtag))
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    @WithMockUser(roles = "LIBRARIAN")
+    void shouldReturnOnlyRequestedFieldsWithoutLoadingEntities() throws Exception {
+        mockMvc.perform(post("/api/books")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(bookRequest)))
+                .andExpect(status().isCreated());
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        statistics.clear();
+
+        String body = mockMvc.perform(get("/api/books").param("fields", "isAvailable,title,id,authorName"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].title").value("Test Kitabı"))
+                .andExpect(jsonPath("$[0].authorName").value("Yazar Test"))
+                .andExpect(jsonPath("$[0].available").value(true))
+                .andReturn().getResponse().getContentAsString();
+
+        assertEquals(List.of("id", "title", "authorName", "available"),
+                List.copyOf(objectMapper.readValue(body, new TypeReference<List<Map<String, Object>>>() {}).get(0).keySet()));
+        assertEquals(0, statistics.getEntityLoadCount());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    @WithMockUser(roles = "LIBRARIAN")
+    void shouldServeSpellingsOfTheSameFieldsFromOneEncodedList() throws Exception {
+        mockMvc.perform(post("/api/books")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(bookRequest)))
+                .andExpect(status().isCreated());
+        mockMvc.perform(get("/api/books").param("fields", "title,available"))
+                .andExpect(status().isOk());
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        statistics.clear();
+
+        for (String fields : List.of(" title,available", "available,title", "title,isAvailable,available")) {
+            mockMvc.perform(get("/api/books").param("fields", fields))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$[0].title").value("Test Kitabı"))
+                    .andExpect(jsonPath("$[0].available").value(true));
+        }
+        assertEquals(0, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    @WithMockUser(roles = "PATRON")
+    void shouldAnswerUnsupportedAcceptWithNotAcceptable() throws Exception {
+        mockMvc.perform(get("/api/books").accept(MediaType.APPLICATION_XML))
+                .andExpect(status().isNotAcceptable());
+        mockMvc.perform(get("/api/books").param("fields", "id,title").accept(MediaType.APPLICATION_XML))
+                .andExpect(status().isNotAcceptable());
+    }
+
+    @Test
+    @WithMockUser(roles = "PATRON")
+    void shouldRejectUnknownFields() throws Exception {
+        mockMvc.perform(get("/api/books").param("fields", "id,password"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @WithMockUser(roles = "LIBRARIAN")
+    void shouldGetBooksByIdsInRequestOrderSkippingUnknownIds() throws Exception {
+        String first = create(bookRequest);
+        bookRequest.setTitle("İkinci Kitap");
+        bookRequest.setIsbn(UUID.randomUUID().toString());
+        String second = create(bookRequest);
+
+        mockMvc.perform(get("/api/books").param("ids", second + "," + UUID.randomUUID() + "," + first))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].id").value(second))
+                .andExpect(jsonPath("$[0].title").value("İkinci Kitap"))
+                .andExpect(jsonPath("$[1].id").value(first));
+    }
+
+    @Test
+    @WithMockUser(roles = "PATRON")
+    void shouldRejectMoreThanMaxBatchIds() throws Exception {
+        String ids = Stream.generate(UUID::randomUUID).limit(BookController.MAX_BATCH_IDS + 1)
+                .map(UUID::toString)
+                .collect(Collectors.joining(","));
+
+        mockMvc.perform(get("/api/books").param("ids", ids))
+                .andExpect(status().isBadRequest());
+    }
+
+    private String create(BookRequest request) throws Exception {
+        String response = mockMvc.perform(post("/api/books")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(response).get("id").asText();
+    }
 }
@@ -14,6 +14,7 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
@@ -24,6 +25,8 @@ import org.springframework.test.web.servlet.MockMvc;
 import java.time.LocalDate;
 import java.util.UUID;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -89,6 +92,41 @@ class BorrowControllerIntegrationTest {
         book = bookRepository.save(book);
         testBookId = book.getId();
     }
+    @Test
+    void testBookListShowsBorrowAndReturnUnderNewEtag() throws Exception {
+        String bookPath = "$[?(@.id == '" + testBookId + "')]";
+        String etag = mockMvc.perform(get("/api/books").header("Authorization", librarianToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath(bookPath + ".count").value(5))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        String borrowResponse = mockMvc.perform(post("/api/borrows")
+                        .header("Authorization", librarianToken)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new BorrowRequest(
+                                testBookId, testPatronEmail, LocalDate.now(), LocalDate.now().plusDays(7)))))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        String borrowedEtag = mockMvc.perform(get("/api/books")
+                        .header("Authorization", librarianToken)
+                        .header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath(bookPath + ".count").value(4))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertNotEquals(etag, borrowedEtag);
+
+        mockMvc.perform(put("/api/borrows/return/" + objectMapper.readTree(borrowResponse).get("id").asText())
+                        .header("Authorization", librarianToken))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/books")
+                        .header("Authorization", librarianToken)
+                        .header(HttpHeaders.IF_NONE_MATCH, borrowedEtag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath(bookPath + ".count").value(5));
+    }
+
     @Test
     void testReturnBookSuccessfully() throws Exception {
         // 1. Önce ödünç al
@@ -189,6 +227,83 @@ class BorrowControllerIntegrationTest {
                 .andExpect(status().isBadRequest());
     }
 
+    @Test
+    void testBorrowReplayWithIdempotencyKey() throws Exception {
+        BorrowRequest request = new BorrowRequest(
+                testBookId, testPatronEmail,
+                LocalDate.now(), LocalDate.now().plusDays(7)
+        );
+        String key = UUID.randomUUID().toString();
+
+        String first = mockMvc.perform(post("/api/borrows")
+                        .header("Authorization", librarianToken)
+                        .header("Idempotency-Key", key)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        // Retry returns the stored response instead of "already borrowed"
+        mockMvc.perform(post("/api/borrows")
+                        .header("Authorization", librarianToken)
+                        .header("Idempotency-Key", key)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").value(objectMapper.readTree(first).get("id").asText()));
+
+        assertEquals(4, bookRepository.findById(testBookId).orElseThrow().getCount());
+    }
+
+    @Test
+    void testReturnReplayWithIdempotencyKey() throws Exception {
+        BorrowRequest request = new BorrowRequest(
+                testBookId, testPatronEmail,
+                LocalDate.now(), LocalDate.now().plusDays(7)
+        );
+
+        String borrowResponse = mockMvc.perform(post("/api/borrows")
+                        .header("Authorization", librarianToken)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        UUID borrowId = UUID.fromString(objectMapper.readTree(borrowResponse).get("id").asText());
+        String key = UUID.randomUUID().toString();
+
+        for (int attempt = 0; attempt < 2; attempt++) {
+            mockMvc.perform(put("/api/borrows/return/" + borrowId)
+                            .header("Authorization", librarianToken)
+                            .header("Idempotency-Key", key))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.returned").value(true));
+        }
+    }
+
+    @Test
+    void testIdempotencyKeyReusedForDifferentRequest() throws Exception {
+        BorrowRequest request = new BorrowRequest(
+                testBookId, testPatronEmail,
+                LocalDate.now(), LocalDate.now().plusDays(7)
+        );
+        String key = UUID.randomUUID().toString();
+
+        mockMvc.perform(post("/api/borrows")
+                        .header("Authorization", librarianToken)
+                        .header("Idempotency-Key", key)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk());
+
+        request.setDueDate(LocalDate.now().plusDays(3));
+        mockMvc.perform(post("/api/borrows")
+                        .header("Authorization", librarianToken)
+                        .header("Idempotency-Key", key)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     void testGetUserBorrowHistory() throws Exception {
         UUID userId = userRepository.findByEmail(testPatronEmail).orElseThrow().getId();
@@ -0,0 +1,110 @@
+package com.nurbb.libris.controller;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nurbb.libris.config.ContentNegotiationConfig;
+import com.nurbb.libris.model.dto.request.BookRequest;
+import com.nurbb.libris.model.dto.response.BookResponse;
+import com.nurbb.libris.model.dto.response.UserResponse;
+import com.nurbb.libris.model.entity.valueobject.Genre;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class CborContentNegotiationIntegrationTest {
+
+    @Autowired private MockMvc mockMvc;
+    @Autowired private ObjectMapper objectMapper;
+    @Autowired private Jackson2ObjectMapperBuilder objectMapperBuilder;
+
+    private ObjectMapper cborMapper;
+    private BookRequest bookRequest;
+
+    @BeforeEach
+    void setUp() {
+        cborMapper = ContentNegotiationConfig.cborMapper(objectMapperBuilder);
+
+        bookRequest = new BookRequest();
+        bookRequest.setTitle("CBOR Book");
+        bookRequest.setAuthorName("CBOR Author");
+        bookRequest.setIsbn(UUID.randomUUID().toString().substring(0, 13));
+        bookRequest.setPublishedDate(LocalDate.of(2019, 3, 14));
+        bookRequest.setGenre(Genre.SCIENCE);
+        bookRequest.setPageCount(250);
+        bookRequest.setCount(2);
+    }
+
+    @Test
+    @WithMockUser(roles = "LIBRARIAN")
+    void books_shouldBeServedAsCborWhenAsked() throws Exception {
+        String created = mockMvc.perform(post("/api/books")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(bookRequest)))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        BookResponse expected = objectMapper.readValue(created, BookResponse.class);
+
+        byte[] list = mockMvc.perform(get("/api/books").accept(MediaType.APPLICATION_CBOR))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+                .andReturn().getResponse().getContentAsByteArray();
+        List<BookResponse> books = cborMapper.readValue(list, new TypeReference<>() {});
+        BookResponse listed = books.stream().filter(book -> book.getId().equals(expected.getId())).findFirst().orElseThrow();
+        assertEquals(expected.getTitle(), listed.getTitle());
+        assertEquals(expected.getPublishedDate(), listed.getPublishedDate());
+        assertEquals(expected.getGenre(), listed.getGenre());
+
+        byte[] single = mockMvc.perform(get("/api/books/" + expected.getId()).accept(MediaType.APPLICATION_CBOR))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+                .andReturn().getResponse().getContentAsByteArray();
+        BookResponse found = cborMapper.readValue(single, BookResponse.class);
+        assertEquals(expected.getIsbn(), found.getIsbn());
+        assertEquals(expected.getPublishedDate(), found.getPublishedDate());
+
+        mockMvc.perform(get("/api/books"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON));
+    }
+
+    @Test
+    @WithMockUser(username = "admin@libris.com", roles = "LIBRARIAN")
+    void usersBorrowsAndStatistics_shouldBeServedAsCborWhenAsked() throws Exception {
+        byte[] users = mockMvc.perform(get("/api/users").accept(MediaType.APPLICATION_CBOR))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+                .andReturn().getResponse().getContentAsByteArray();
+        List<UserResponse> decoded = cborMapper.readValue(users, new TypeReference<>() {});
+        assertTrue(decoded.stream().anyMatch(user -> "admin@libris.com".equals(user.getEmail())));
+
+        mockMvc.perform(get("/api/borrows/overdue").accept(MediaType.APPLICATION_CBOR))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_CBOR));
+
+        byte[] statistics = mockMvc.perform(get("/api/statistics/overdue").accept(MediaType.APPLICATION_CBOR))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+                .andReturn().getResponse().getContentAsByteArray();
+        assertFalse(cborMapper.readValue(statistics, new TypeReference<Map<String, Object>>() {}).isEmpty());
+    }
+}
@@ -14,6 +14,8 @@ import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
 
 import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -151,6 +153,90 @@ class UserControllerIntegrationTest {
                 .andExpect(jsonPath("$[*].email").value(org.hamcrest.Matchers.hasItem(userRequest.getEmail())));
     }
 
+    @Test
+    @WithMockUser(roles = {"LIBRARIAN"})
+    void shouldGetAllUsersWithRequestedFieldsOnly() throws Exception {
+        mockMvc.perform(post("/api/users/register")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(userRequest)))
+                .andExpect(status().isCreated());
+
+        mockMvc.perform(get("/api/users").param("fields", "email,id"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[*].email").value(org.hamcrest.Matchers.hasItem(userRequest.getEmail())))
+                .andExpect(jsonPath("$[0].id").exists())
+                .andExpect(jsonPath("$[0].fullName").doesNotExist())
+                .andExpect(jsonPath("$[0].createdAt").doesNotExist());
+    }
+
+    @Test
+    @WithMockUser(username = "sparse@mail.com", roles = {"PATRON"})
+    void shouldLimitPatronToOwnRowWithRequestedFields() throws Exception {
+        userRequest.setEmail("sparse@mail.com");
+        mockMvc.perform(post("/api/users/register")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(userRequest)))
+                .andExpect(status().isCreated());
+
+        mockMvc.perform(get("/api/users").param("fields", "fullName,totalPagesRead"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].fullName").value(userRequest.getFullName()))
+                .andExpect(jsonPath("$[0].totalPagesRead").value(0))
+                .andExpect(jsonPath("$[0].email").doesNotExist());
+    }
+
+    @Test
+    @WithMockUser(roles = {"LIBRARIAN"})
+    void shouldGetUsersByIdsInRequestOrder() throws Exception {
+        String first = register(userRequest);
+        userRequest.setEmail("test" + UUID.randomUUID() + "@mail.com");
+        String second = register(userRequest);
+
+        // first is cached by a single lookup, second is read in the batch
+        mockMvc.perform(get("/api/users/" + first)).andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/users").param("ids", second + "," + UUID.randomUUID() + "," + first))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].id").value(second))
+                .andExpect(jsonPath("$[0].email").value(userRequest.getEmail()))
+                .andExpect(jsonPath("$[1].id").value(first));
+    }
+
+    @Test
+    @WithMockUser(username = "batch@mail.com", roles = {"PATRON"})
+    void shouldOnlyReturnOwnRecordToPatronInBatch() throws Exception {
+        String other = register(userRequest);
+        userRequest.setEmail("batch@mail.com");
+        String own = register(userRequest);
+
+        mockMvc.perform(get("/api/users").param("ids", other + "," + own))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].id").value(own));
+    }
+
+    @Test
+    @WithMockUser(roles = {"LIBRARIAN"})
+    void shouldRejectMoreThanMaxBatchIds() throws Exception {
+        String ids = Stream.generate(UUID::randomUUID).limit(BookController.MAX_BATCH_IDS + 1)
+                .map(UUID::toString)
+                .collect(Collectors.joining(","));
+
+        mockMvc.perform(get("/api/users").param("ids", ids))
+                .andExpect(status().isBadRequest());
+    }
+
+    private String register(UserRequest request) throws Exception {
+        String response = mockMvc.perform(post("/api/users/register")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(response).get("id").asText();
+    }
+
     @Test
     @WithMockUser(roles = {"LIBRARIAN"}) // Librarian rolü ile test
     void shouldDeleteUserSuccessfully() throws Exception {
@@ -0,0 +1,75 @@
+package com.nurbb.libris.datasource;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class PoolAdmissionFilterTest {
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final HikariPoolMXBean pool = mock(HikariPoolMXBean.class);
+
+    private PoolAdmissionFilter filter;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        HikariDataSource hikari = mock(HikariDataSource.class);
+        when(hikari.getHikariPoolMXBean()).thenReturn(pool);
+        DataSource dataSource = mock(DataSource.class);
+        when(dataSource.unwrap(HikariDataSource.class)).thenReturn(hikari);
+
+        filter = new PoolAdmissionFilter(dataSource, new ObjectMapper().findAndRegisterModules(), meterRegistry,
+                4, Duration.ofSeconds(2));
+    }
+
+    @Test
+    void requests_shouldPassWhileTheQueueIsWithinLimit() throws Exception {
+        when(pool.getThreadsAwaitingConnection()).thenReturn(4);
+
+        MockFilterChain chain = new MockFilterChain();
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/books"), response, chain);
+
+        assertNotNull(chain.getRequest());
+        assertEquals(200, response.getStatus());
+    }
+
+    @Test
+    void requests_shouldBeRejectedOnceTheQueueExceedsTheLimit() throws Exception {
+        when(pool.getThreadsAwaitingConnection()).thenReturn(5);
+
+        MockFilterChain chain = new MockFilterChain();
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/books"), response, chain);
+
+        assertNull(chain.getRequest());
+        assertEquals(503, response.getStatus());
+        assertEquals("2", response.getHeader(HttpHeaders.RETRY_AFTER));
+        assertTrue(response.getContentAsString().contains("\"status\":503"));
+        assertEquals(1, meterRegistry.get("libris.datasource.admission.rejected").counter().count());
+    }
+
+    @Test
+    void actuator_shouldAlwaysPass() throws Exception {
+        when(pool.getThreadsAwaitingConnection()).thenReturn(50);
+
+        MockFilterChain chain = new MockFilterChain();
+        filter.doFilter(new MockHttpServletRequest("GET", "/actuator/health/readiness"), new MockHttpServletResponse(), chain);
+
+        assertNotNull(chain.getRequest());
+    }
+}
@@ -0,0 +1,198 @@
+package com.nurbb.libris.datasource;
+
+import com.nurbb.libris.model.entity.Author;
+import com.nurbb.libris.model.entity.Book;
+import com.nurbb.libris.model.entity.valueobject.Genre;
+import com.nurbb.libris.repository.AuthorRepository;
+import com.nurbb.libris.repository.BookRepository;
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.orm.jpa.support.OpenEntityManagerInViewInterceptor;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.ModelAndView;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import javax.sql.DataSource;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+/**
+ * With open-in-view off, a request holds a pooled connection only while its service transaction runs, not
+ * while the response is written. Every read path of the API is checked for that, then driven at eight times
+ * the pool size; all requests have to succeed without waiting out the acquire timeout. Throughput is logged.
+ */
+
+@Slf4j
+@SpringBootTest(properties = {
+        "spring.datasource.hikari.maximum-pool-size=2",
+        "spring.datasource.hikari.connection-timeout=5000"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class PoolSaturationThroughputTest {
+
+    private static final int CONCURRENCY = 16;
+    private static final int REQUESTS = 480;
+
+    @Autowired private MockMvc mockMvc;
+    @Autowired private ApplicationContext context;
+    @Autowired private DataSource dataSource;
+    @Autowired private AuthorRepository authorRepository;
+    @Autowired private BookRepository bookRepository;
+    @Autowired private ActiveConnectionProbe probe;
+
+    private final List<String> paths = new ArrayList<>();
+
+    @TestConfiguration
+    static class ProbeConfig {
+
+        @Bean
+        ActiveConnectionProbe activeConnectionProbe(EntityManagerFactory entityManagerFactory, DataSource dataSource) {
+            return new ActiveConnectionProbe(entityManagerFactory, dataSource);
+        }
+
+        @Bean
+        WebMvcConfigurer activeConnectionProbeInterceptor(ActiveConnectionProbe probe) {
+            return new WebMvcConfigurer() {
+                @Override
+                public void addInterceptors(InterceptorRegistry registry) {
+                    registry.addInterceptor(probe);
+                }
+            };
+        }
+    }
+
+    /**
+     * Records, right after each handler returned (body already written), whether the request thread still has
+     * an EntityManager or a connection bound, which is what open-in-view would keep until the request ends.
+     */
+
+    static class ActiveConnectionProbe implements HandlerInterceptor {
+
+        private final EntityManagerFactory entityManagerFactory;
+        private final DataSource dataSource;
+        private final Map<String, Boolean> boundAfterHandler = new ConcurrentHashMap<>();
+
+        ActiveConnectionProbe(EntityManagerFactory entityManagerFactory, DataSource dataSource) {
+            this.entityManagerFactory = entityManagerFactory;
+            this.dataSource = dataSource;
+        }
+
+        @Override
+        public void postHandle(HttpServletRequest request, HttpServletResponse response, Object handler,
+                               ModelAndView modelAndView) {
+            boundAfterHandler.put(request.getRequestURI() + "?" + request.getQueryString(),
+                    TransactionSynchronizationManager.hasResource(entityManagerFactory)
+                            || TransactionSynchronizationManager.hasResource(dataSource));
+        }
+    }
+
+    @BeforeEach
+    void setUp() {
+        Author author = new Author();
+        author.setName("Pool Author " + UUID.randomUUID());
+        author = authorRepository.save(author);
+
+        Book book = new Book();
+        book.setTitle("Pool Book");
+        book.setIsbn(UUID.randomUUID().toString().substring(0, 13));
+        book.setAuthor(author);
+        book.setPageCount(100);
+        book.setGenre(Genre.SCIENCE);
+        book.setCount(3);
+        book.setAvailable(true);
+        book.setPublishedDate(LocalDate.of(2021, 1, 1));
+        book = bookRepository.save(book);
+
+        paths.addAll(List.of(
+                "/api/books",
+                "/api/books/" + book.getId(),
+                "/api/books/search?query=Pool",
+                "/api/books?fields=id,title,available",
+                "/api/books?ids=" + book.getId(),
+                "/api/authors",
+                "/api/authors/" + author.getId(),
+                "/api/users",
+                "/api/users?fields=id,email",
+                "/api/borrows",
+                "/api/borrows/overdue",
+                "/api/statistics/text-report",
+                "/api/statistics/overdue"));
+    }
+
+    @Test
+    void openInView_shouldBeDisabled() {
+        assertTrue(context.getBeansOfType(OpenEntityManagerInViewInterceptor.class).isEmpty());
+    }
+
+    @Test
+    void requests_shouldReleaseTheirConnectionBeforeTheResponseIsDone() throws Exception {
+        probe.boundAfterHandler.clear();
+        for (String path : paths) {
+            mockMvc.perform(get(path).with(user("admin@libris.com").roles("LIBRARIAN")))
+                    .andExpect(result -> assertEquals(200, result.getResponse().getStatus(), path));
+        }
+
+        probe.boundAfterHandler.forEach((path, bound) -> assertFalse(bound, path));
+        assertEquals(paths.size(), probe.boundAfterHandler.size());
+    }
+
+    @Test
+    void readPaths_shouldAllSucceedAtEightTimesThePoolSize() throws Exception {
+        AtomicInteger failures = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(CONCURRENCY);
+        try {
+            long start = System.nanoTime();
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < REQUESTS; i++) {
+                String path = paths.get(i % paths.size());
+                futures.add(executor.submit(() -> {
+                    int status = mockMvc.perform(get(path).with(user("admin@libris.com").roles("LIBRARIAN")))
+                            .andReturn().getResponse().getStatus();
+                    if (status != 200) {
+                        failures.incrementAndGet();
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+            long millis = (System.nanoTime() - start) / 1_000_000;
+            log.info("{} requests, {} concurrent, pool of 2: {} ms, {} req/s",
+                    REQUESTS, CONCURRENCY, millis, REQUESTS * 1000L / Math.max(1, millis));
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(0, failures.get());
+        assertEquals(0, dataSource.unwrap(HikariDataSource.class).getHikariPoolMXBean().getThreadsAwaitingConnection());
+    }
+}
@@ -0,0 +1,135 @@
+package com.nurbb.libris.datasource;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Routes against two separate in-memory H2 databases, each tagged with its own node name.
+ */
+
+class ReadReplicaRoutingDataSourceTest {
+
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate readWrite;
+    private TransactionTemplate readOnly;
+    private DataSource replica;
+    private ReplicaLagMonitor monitor;
+
+    @BeforeEach
+    void setUp() {
+        DataSource primary = node("routing_primary", "primary");
+        replica = node("routing_replica", "replica");
+
+        monitor = new ReplicaLagMonitor(replica, "select lag_seconds from node", Duration.ofSeconds(5));
+        DataSource routing = new LazyConnectionDataSourceProxy(new ReadReplicaRoutingDataSource(primary, replica, monitor));
+
+        jdbcTemplate = new JdbcTemplate(routing);
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(routing);
+        readWrite = new TransactionTemplate(transactionManager);
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+    }
+
+    @Test
+    void readOnlyTransactions_shouldUseReplica() {
+        assertEquals("replica", readOnly.execute(status -> currentNode()));
+    }
+
+    @Test
+    void readWriteTransactionsAndNonTransactionalCalls_shouldUsePrimary() {
+        assertEquals("primary", readWrite.execute(status -> currentNode()));
+        assertEquals("primary", currentNode());
+    }
+
+    @Test
+    void laggingReplica_shouldFallBackToPrimaryUntilCaughtUp() {
+        new JdbcTemplate(replica).update("update node set lag_seconds = 30");
+        monitor.checkLag();
+
+        assertFalse(monitor.isReplicaUsable());
+        assertEquals("primary", readOnly.execute(status -> currentNode()));
+
+        new JdbcTemplate(replica).update("update node set lag_seconds = 1");
+        monitor.checkLag();
+
+        assertTrue(monitor.isReplicaUsable());
+        assertEquals("replica", readOnly.execute(status -> currentNode()));
+    }
+
+    @Test
+    void primaryReadScope_shouldKeepReadOnlyTransactionsOnPrimary() {
+        boolean nested = PrimaryReadScope.enter();
+        try {
+            assertEquals("primary", readOnly.execute(status -> currentNode()));
+        } finally {
+            PrimaryReadScope.exit(nested);
+        }
+        assertFalse(PrimaryReadScope.isActive());
+        assertEquals("replica", readOnly.execute(status -> currentNode()));
+    }
+
+    @Test
+    void unreachableReplica_shouldFallBackToPrimary() {
+        ReplicaLagMonitor failing = new ReplicaLagMonitor(replica, "select lag_seconds from missing_table", Duration.ofSeconds(5));
+        failing.checkLag();
+
+        assertFalse(failing.isReplicaUsable());
+    }
+
+    @Test
+    void reportingScope_shouldUseReportingPoolEvenForReadOnlyTransactions() {
+        DataSource primary = node("routing_primary", "primary");
+        DataSource reporting = node("routing_reporting", "reporting");
+        DataSource routing = new LazyConnectionDataSourceProxy(
+                new ReadReplicaRoutingDataSource(primary, replica, monitor, reporting));
+        jdbcTemplate = new JdbcTemplate(routing);
+        TransactionTemplate reportReadOnly = new TransactionTemplate(new DataSourceTransactionManager(routing));
+        reportReadOnly.setReadOnly(true);
+
+        boolean nested = ReportingScope.enter();
+        try {
+            assertEquals("reporting", reportReadOnly.execute(status -> currentNode()));
+            assertEquals("reporting", currentNode());
+        } finally {
+            ReportingScope.exit(nested);
+        }
+        assertFalse(ReportingScope.isActive());
+        assertEquals("replica", reportReadOnly.execute(status -> currentNode()));
+    }
+
+    @Test
+    void withoutReplica_readOnlyTransactionsShouldStayOnPrimary() {
+        DataSource primary = node("routing_primary", "primary");
+        DataSource reporting = node("routing_reporting", "reporting");
+        DataSource routing = new LazyConnectionDataSourceProxy(
+                new ReadReplicaRoutingDataSource(primary, null, null, reporting));
+        jdbcTemplate = new JdbcTemplate(routing);
+        TransactionTemplate primaryReadOnly = new TransactionTemplate(new DataSourceTransactionManager(routing));
+        primaryReadOnly.setReadOnly(true);
+
+        assertEquals("primary", primaryReadOnly.execute(status -> currentNode()));
+    }
+
+    private String currentNode() {
+        return jdbcTemplate.queryForObject("select name from node", String.class);
+    }
+
+    private static DataSource node(String database, String name) {
+        DataSource dataSource = new DriverManagerDataSource("jdbc:h2:mem:" + database + ";DB_CLOSE_DELAY=-1", "sa", "");
+        JdbcTemplate template = new JdbcTemplate(dataSource);
+        template.execute("drop table if exists node");
+        template.execute("create table node (name varchar(20), lag_seconds double)");
+        template.update("insert into node values (?, 0)", name);
+        return dataSource;
+    }
+}
@@ -0,0 +1,64 @@
+package com.nurbb.libris.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import javax.sql.DataSource;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * With the reporting pool on (pointing at the same H2 database), statistics reports run on libris-reporting and
+ * everything else on libris-primary. Hikari starts a pool on its first connection, so a pool that has no
+ * MXBean yet has not been used.
+ */
+
+@SpringBootTest(properties = {
+        "libris.datasource.reporting.enabled=true",
+        "spring.h2.console.enabled=false" // opens a connection on every DataSource at startup to log its URL
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class ReportingPoolIntegrationTest {
+
+    @Autowired private MockMvc mockMvc;
+    @Autowired private MeterRegistry meterRegistry;
+    @Autowired @Qualifier("primaryDataSource") private DataSource primary;
+    @Autowired @Qualifier("reportingDataSource") private DataSource reporting;
+
+    @Test
+    @WithMockUser(roles = "LIBRARIAN")
+    void statistics_shouldRunOnTheReportingPoolWithItsOwnMetrics() throws Exception {
+        HikariDataSource reportingPool = reporting.unwrap(HikariDataSource.class);
+        assertEquals("libris-reporting", reportingPool.getPoolName());
+        assertNull(reportingPool.getHikariPoolMXBean());
+
+        mockMvc.perform(get("/api/books")).andExpect(status().isOk());
+        assertNull(reportingPool.getHikariPoolMXBean());
+
+        mockMvc.perform(get("/api/statistics/overdue")).andExpect(status().isOk());
+        mockMvc.perform(get("/api/statistics/text-report")).andExpect(status().isOk());
+        assertNotNull(reportingPool.getHikariPoolMXBean());
+        assertFalse(ReportingScope.isActive());
+
+        for (String pool : new String[] {"libris-primary", "libris-reporting"}) {
+            assertNotNull(meterRegistry.find("hikaricp.connections.active").tag("pool", pool).gauge(), pool);
+            assertNotNull(meterRegistry.find("hikaricp.connections.idle").tag("pool", pool).gauge(), pool);
+            assertNotNull(meterRegistry.find("hikaricp.connections.pending").tag("pool", pool).gauge(), pool);
+        }
+        Timer acquire = meterRegistry.get("hikaricp.connections.acquire").tag("pool", "libris-reporting").timer();
+        assertTrue(acquire.count() > 0);
+        assertEquals("libris-primary", primary.unwrap(HikariDataSource.class).getPoolName());
+    }
+}
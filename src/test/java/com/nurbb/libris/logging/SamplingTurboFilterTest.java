@@ -0,0 +1,71 @@
+package com.nurbb.libris.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.core.spi.FilterReply;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SamplingTurboFilterTest {
+
+    private final SamplingTurboFilter filter = new SamplingTurboFilter();
+    private Logger logger;
+
+    @BeforeEach
+    void setUp() {
+        filter.setSampleRate(3);
+        logger = new LoggerContext().getLogger("com.nurbb.libris.sampled");
+        logger.setLevel(Level.INFO);
+    }
+
+    private FilterReply decide(Level level) {
+        return filter.decide(LogMarkers.HIGH_FREQUENCY, logger, level, "Borrowed {}", new Object[] { "book" }, null);
+    }
+
+    private long passed(int events) {
+        return IntStream.range(0, events).mapToObj(i -> decide(Level.INFO)).filter(FilterReply.NEUTRAL::equals).count();
+    }
+
+    @Test
+    void decide_shouldLetOneInSampleRateEventsThrough() {
+        assertEquals(FilterReply.NEUTRAL, decide(Level.INFO));
+        assertEquals(FilterReply.DENY, decide(Level.INFO));
+        assertEquals(FilterReply.DENY, decide(Level.INFO));
+        assertEquals(FilterReply.NEUTRAL, decide(Level.INFO));
+        assertEquals(3, passed(9));
+    }
+
+    @Test
+    void decide_shouldPassWarnAndErrorWithoutCounting() {
+        decide(Level.INFO);
+        for (int i = 0; i < 5; i++) {
+            assertEquals(FilterReply.NEUTRAL, decide(Level.WARN));
+            assertEquals(FilterReply.NEUTRAL, decide(Level.ERROR));
+        }
+        assertEquals(FilterReply.DENY, decide(Level.INFO));
+    }
+
+    @Test
+    void decide_shouldNotCountEnabledChecksOrEventsBelowTheLoggerLevel() {
+        for (int i = 0; i < 5; i++) {
+            assertEquals(FilterReply.NEUTRAL,
+                    filter.decide(LogMarkers.HIGH_FREQUENCY, logger, Level.INFO, null, null, null));
+            assertEquals(FilterReply.NEUTRAL, decide(Level.DEBUG));
+        }
+        assertEquals(FilterReply.NEUTRAL, decide(Level.INFO));
+        assertEquals(FilterReply.DENY, decide(Level.INFO));
+    }
+
+    @Test
+    void decide_shouldIgnoreEventsWithoutTheMarker() {
+        for (int i = 0; i < 5; i++) {
+            assertEquals(FilterReply.NEUTRAL, filter.decide(null, logger, Level.INFO, "Borrowed {}", null, null));
+        }
+        assertEquals(FilterReply.NEUTRAL, decide(Level.INFO));
+    }
+}
@@ -0,0 +1,67 @@
+package com.nurbb.libris.monitoring;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.test.context.support.WithAnonymousUser;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@AutoConfigureObservability(tracing = false) // registers the Prometheus registry, which tests leave out by default
+@ActiveProfiles("test")
+class DomainMetricsIntegrationTest {
+
+    @Autowired private MockMvc mockMvc;
+    @Autowired private MeterRegistry meterRegistry;
+
+    @Test
+    @WithMockUser(roles = {"LIBRARIAN"})
+    void shouldRecordDomainTimersAndCacheStatistics() throws Exception {
+        mockMvc.perform(get("/api/books/search").param("query", "metrics"))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/api/statistics/overdue"))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/api/statistics/overdue"))
+                .andExpect(status().isOk());
+
+        Timer search = meterRegistry.find("libris.books.search").timer();
+        assertNotNull(search);
+        assertTrue(search.count() >= 1);
+
+        Timer overdue = meterRegistry.find("libris.statistics").tag("report", "overdue").timer();
+        assertNotNull(overdue);
+        assertTrue(overdue.count() >= 1);
+
+        assertNotNull(meterRegistry.find("cache.gets").tags("cache", "overdueStats", "result", "hit").functionCounter());
+        assertNotNull(meterRegistry.find("libris.availability.subscribers").gauge());
+    }
+
+    @Test
+    @WithAnonymousUser
+    void shouldExposeOnlyHealthWithoutAuthentication() throws Exception {
+        mockMvc.perform(get("/actuator/health"))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().is4xxClientError());
+        mockMvc.perform(get("/actuator/metrics"))
+                .andExpect(status().is4xxClientError());
+    }
+
+    @Test
+    @WithMockUser(roles = {"LIBRARIAN"})
+    void shouldExposePrometheusToLibrarians() throws Exception {
+        mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isOk());
+    }
+}
@@ -0,0 +1,44 @@
+package com.nurbb.libris.monitoring;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.mock.env.MockEnvironment;
+
+import javax.sql.DataSource;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class QueryStatsConfigTest {
+
+    @AfterEach
+    void tearDown() {
+        QueryStatsHolder.clear();
+    }
+
+    @Test
+    void rowsOff_shouldCountStatementsWithoutProxyingResultSets() {
+        QueryStats stats = query(new MockEnvironment());
+
+        assertEquals(1, stats.getStatementCount());
+        assertEquals(0, stats.getRowsFetched());
+    }
+
+    @Test
+    void rowsOn_shouldCountFetchedRows() {
+        QueryStats stats = query(new MockEnvironment().withProperty("libris.query-stats.rows", "true"));
+
+        assertEquals(1, stats.getStatementCount());
+        assertEquals(3, stats.getRowsFetched());
+    }
+
+    private static QueryStats query(MockEnvironment environment) {
+        DataSource dataSource = (DataSource) QueryStatsConfig.queryStatsDataSourcePostProcessor(environment)
+                .postProcessAfterInitialization(
+                        new DriverManagerDataSource("jdbc:h2:mem:query_stats;DB_CLOSE_DELAY=-1", "sa", ""), "dataSource");
+        QueryStats stats = QueryStatsHolder.reset();
+        new JdbcTemplate(dataSource).queryForList("select x from system_range(1, 3)", Long.class);
+        return stats;
+    }
+}
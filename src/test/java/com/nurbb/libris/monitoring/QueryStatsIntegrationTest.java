@@ -0,0 +1,52 @@
+package com.nurbb.libris.monitoring;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class QueryStatsIntegrationTest {
+
+    @Autowired private MockMvc mockMvc;
+    @Autowired private MeterRegistry meterRegistry;
+
+    @Test
+    @WithMockUser(roles = {"LIBRARIAN"})
+    void shouldExposeQueryStatsHeadersAndMetrics() throws Exception {
+        MvcResult result = mockMvc.perform(get("/api/borrows/overdue"))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(QueryStatsResponseAdvice.QUERY_COUNT_HEADER))
+                .andExpect(header().exists(QueryStatsResponseAdvice.QUERY_TIME_HEADER))
+                .andExpect(header().exists(QueryStatsResponseAdvice.QUERY_ROWS_HEADER))
+                .andReturn();
+
+        long statements = Long.parseLong(result.getResponse().getHeader(QueryStatsResponseAdvice.QUERY_COUNT_HEADER));
+        assertTrue(statements >= 1);
+
+        DistributionSummary perRequest = meterRegistry.find("libris.jdbc.request.statements")
+                .tags("method", "GET", "uri", "/api/borrows/overdue")
+                .summary();
+        assertNotNull(perRequest);
+        assertTrue(perRequest.count() >= 1);
+
+        DistributionSummary perService = meterRegistry.find("libris.jdbc.service.statements")
+                .tags("class", "BorrowServiceImpl", "method", "getOverdueBorrows")
+                .summary();
+        assertNotNull(perService);
+        assertTrue(perService.totalAmount() >= 1);
+    }
+}
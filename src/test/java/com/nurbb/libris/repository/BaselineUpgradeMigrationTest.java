@@ -0,0 +1,60 @@
+package com.nurbb.libris.repository;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Upgrades a database left by the baseline release (ddl-auto=update, no Flyway history, existing rows):
+ * Flyway baselines it at version 0 and runs every migration, then Hibernate validates the mapping against
+ * the result. Skipped when Docker is not available.
+ */
+
+@Testcontainers(disabledWithoutDocker = true)
+@SpringBootTest
+@ActiveProfiles("test")
+class BaselineUpgradeMigrationTest {
+
+    @Container
+    static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:15")
+            .withInitScript("db/baseline-release-schema.sql");
+
+    @DynamicPropertySource
+    static void postgres(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", POSTGRES::getJdbcUrl);
+        registry.add("spring.datasource.username", POSTGRES::getUsername);
+        registry.add("spring.datasource.password", POSTGRES::getPassword);
+        registry.add("spring.datasource.driver-class-name", () -> "org.postgresql.Driver");
+        registry.add("spring.jpa.hibernate.ddl-auto", () -> "validate");
+        registry.add("spring.flyway.enabled", () -> "true");
+    }
+
+    @Autowired private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void baselineReleaseDatabase_shouldMigrateAndValidate() {
+        List<String> versions = jdbcTemplate.queryForList(
+                "select version from flyway_schema_history where success order by installed_rank", String.class);
+        assertEquals(List.of("0", "1", "2", "3"), versions);
+
+        Map<String, Object> patron = jdbcTemplate.queryForMap(
+                "select active_borrow_count, active_borrow_days from users where email = 'baseline@libris.test'");
+        assertEquals(1, patron.get("active_borrow_count"));
+        assertEquals(14, patron.get("active_borrow_days"));
+
+        assertEquals(0, jdbcTemplate.queryForObject("select count(*) from borrows_archive", Integer.class));
+        assertEquals(1, jdbcTemplate.queryForObject("select count(*) from borrows", Integer.class));
+    }
+}
@@ -0,0 +1,148 @@
+package com.nurbb.libris.repository;
+
+import com.nurbb.libris.model.dto.projection.BorrowSummary;
+import com.nurbb.libris.model.entity.Author;
+import com.nurbb.libris.model.entity.Book;
+import com.nurbb.libris.model.entity.Borrow;
+import com.nurbb.libris.model.entity.User;
+import com.nurbb.libris.model.entity.valueobject.Genre;
+import com.nurbb.libris.model.entity.valueobject.Role;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Verifies with Hibernate statistics that borrow listings no longer fan out into one select per book/user.
+ */
+
+@SpringBootTest
+@ActiveProfiles("test")
+class BorrowRepositoryQueryCountTest {
+
+    private static final int BORROW_COUNT = 5;
+
+    @Autowired private BorrowRepository borrowRepository;
+    @Autowired private BookRepository bookRepository;
+    @Autowired private UserRepository userRepository;
+    @Autowired private AuthorRepository authorRepository;
+    @Autowired private EntityManagerFactory entityManagerFactory;
+
+    private final List<UUID> authorIds = new ArrayList<>();
+    private final List<UUID> bookIds = new ArrayList<>();
+    private final List<UUID> userIds = new ArrayList<>();
+    private final List<UUID> borrowIds = new ArrayList<>();
+
+    private Statistics statistics;
+    private User firstUser;
+
+    @BeforeEach
+    void setUp() {
+        for (int i = 0; i < BORROW_COUNT; i++) {
+            Author author = new Author();
+            author.setName("Query Count Author " + UUID.randomUUID());
+            author = authorRepository.save(author);
+            authorIds.add(author.getId());
+
+            Book book = new Book();
+            book.setTitle("Query Count Book " + i);
+            book.setIsbn(UUID.randomUUID().toString().substring(0, 13));
+            book.setAuthor(author);
+            book.setPageCount(100);
+            book.setGenre(Genre.SCIENCE);
+            book.setCount(3);
+            book.setAvailable(true);
+            book.setPublishedDate(LocalDate.of(2021, 1, 1));
+            book = bookRepository.save(book);
+            bookIds.add(book.getId());
+
+            User user = new User();
+            user.setEmail("querycount_" + UUID.randomUUID() + "@libris.com");
+            user.setPassword("password");
+            user.setRole(Role.PATRON);
+            user.setFullName("Query Count Patron " + i);
+            user = userRepository.save(user);
+            userIds.add(user.getId());
+            if (firstUser == null) {
+                firstUser = user;
+            }
+
+            Borrow borrow = borrowRepository.save(Borrow.builder()
+                    .book(book)
+                    .user(user)
+                    .borrowDate(LocalDate.now().minusDays(10))
+                    .dueDate(LocalDate.now().minusDays(1))
+                    .returned(false)
+                    .build());
+            borrowIds.add(borrow.getId());
+        }
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        statistics.clear();
+    }
+
+    /**
+     * Not @Transactional: the listings must load their associations themselves, not find them in the
+     * persistence context the seeding left behind. The seeded rows are deleted instead.
+     */
+
+    @AfterEach
+    void tearDown() {
+        borrowRepository.deleteAllById(borrowIds);
+        bookRepository.deleteAllById(bookIds);
+        authorRepository.deleteAllById(authorIds);
+        userRepository.deleteAllById(userIds);
+    }
+
+    @Test
+    void findAll_shouldLoadBooksAndUsersInSingleStatement() {
+        List<Borrow> borrows = borrowRepository.findAll();
+        borrows.forEach(b -> {
+            assertNotNull(b.getBook().getTitle());
+            assertNotNull(b.getUser().getFullName());
+        });
+
+        assertTrue(borrows.size() >= BORROW_COUNT);
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void findByReturnedFalseAndDueDateBefore_shouldLoadBooksAndUsersInSingleStatement() {
+        List<Borrow> overdue = borrowRepository.findByReturnedFalseAndDueDateBefore(LocalDate.now());
+        overdue.forEach(b -> {
+            assertNotNull(b.getBook().getTitle());
+            assertNotNull(b.getUser().getEmail());
+        });
+
+        assertTrue(overdue.size() >= BORROW_COUNT);
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void summaries_shouldUseSingleStatementWithoutLoadingEntities() {
+        List<BorrowSummary> all = borrowRepository.findAllSummaries();
+        List<BorrowSummary> byUser = borrowRepository.findSummariesByUserId(firstUser.getId());
+        List<BorrowSummary> overdue = borrowRepository.findOverdueSummaries(LocalDate.now());
+
+        assertTrue(all.size() >= BORROW_COUNT);
+        assertEquals(1, byUser.size());
+        assertEquals("Query Count Patron 0", byUser.get(0).userFullName());
+        assertTrue(overdue.size() >= BORROW_COUNT);
+
+        assertEquals(3, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+    }
+}
@@ -0,0 +1,53 @@
+package com.nurbb.libris.repository;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs the Flyway migrations on an empty PostgreSQL database with the production settings (Flyway on,
+ * ddl-auto=validate), so a migration that does not match the entity mapping fails the build instead of the
+ * deployment. The test profile itself uses H2 with create-drop and never runs them. Skipped when Docker is
+ * not available.
+ */
+
+@Testcontainers(disabledWithoutDocker = true)
+@SpringBootTest
+@ActiveProfiles("test")
+class FlywaySchemaValidationTest {
+
+    @Container
+    static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:15");
+
+    @DynamicPropertySource
+    static void postgres(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", POSTGRES::getJdbcUrl);
+        registry.add("spring.datasource.username", POSTGRES::getUsername);
+        registry.add("spring.datasource.password", POSTGRES::getPassword);
+        registry.add("spring.datasource.driver-class-name", () -> "org.postgresql.Driver");
+        registry.add("spring.jpa.hibernate.ddl-auto", () -> "validate");
+        registry.add("spring.flyway.enabled", () -> "true");
+    }
+
+    @Autowired private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void emptyDatabase_shouldMigrateAndValidate() {
+        List<String> versions = jdbcTemplate.queryForList(
+                "select version from flyway_schema_history where success order by installed_rank", String.class);
+        assertEquals(List.of("1", "2", "3"), versions);
+        assertEquals(0, jdbcTemplate.queryForObject(
+                "select count(*) from flyway_schema_history where not success", Integer.class));
+    }
+}
@@ -0,0 +1,211 @@
+package com.nurbb.libris.repository;
+
+import com.nurbb.libris.monitoring.QueryStats;
+import com.nurbb.libris.monitoring.QueryStatsHolder;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs the Flyway migrations on PostgreSQL, seeds a few thousand rows, calls every selective repository method
+ * and checks with EXPLAIN that the statements it actually sent (captured through the query-stats datasource
+ * proxy) are served by an index instead of a sequential scan.
+ * Full listings (findAll, findAllSummaries, ledger reconciliation) scan by design and are not covered.
+ * Skipped when Docker is not available.
+ */
+
+@Testcontainers(disabledWithoutDocker = true)
+@SpringBootTest
+@ActiveProfiles("test")
+class RepositoryIndexUsageTest {
+
+    @Container
+    static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:15");
+
+    @DynamicPropertySource
+    static void postgres(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", POSTGRES::getJdbcUrl);
+        registry.add("spring.datasource.username", POSTGRES::getUsername);
+        registry.add("spring.datasource.password", POSTGRES::getPassword);
+        registry.add("spring.datasource.driver-class-name", () -> "org.postgresql.Driver");
+        registry.add("spring.jpa.hibernate.ddl-auto", () -> "validate");
+        registry.add("spring.flyway.enabled", () -> "true");
+        registry.add("libris.query-stats.enabled", () -> "true");
+    }
+
+    @Autowired private JdbcTemplate jdbcTemplate;
+    @Autowired private TransactionTemplate transactionTemplate;
+    @Autowired private BorrowRepository borrowRepository;
+    @Autowired private BorrowArchiveRepository borrowArchiveRepository;
+    @Autowired private UserRepository userRepository;
+    @Autowired private AuthorRepository authorRepository;
+    @Autowired private BookRepository bookRepository;
+    @Autowired private IdempotencyRecordRepository idempotencyRecordRepository;
+    @Autowired private GamificationEventRepository gamificationEventRepository;
+
+    @Test
+    void selectiveQueryShapes_shouldNotUseSequentialScans() {
+        seed();
+
+        UUID userId = seedId("user", 42);
+        UUID bookId = seedId("book", 42);
+        String email = "seed42@libris.test";
+        LocalDate today = LocalDate.now();
+        String titleTerm = searchTerm("title", 4242);
+        String isbnTerm = searchTerm("isbn", 4242);
+        String nameTerm = searchTerm("name", 1234);
+
+        List<String> failures = new ArrayList<>();
+
+        // BorrowRepository
+        check(failures, "borrows", "existsByUserAndReturnedFalse",
+                () -> borrowRepository.existsByUserAndReturnedFalse(userRepository.getReferenceById(userId)));
+        check(failures, "borrows", "existsByBookAndUserAndReturnedFalse",
+                () -> borrowRepository.existsByBookAndUserAndReturnedFalse(
+                        bookRepository.getReferenceById(bookId), userRepository.getReferenceById(userId)));
+        check(failures, "borrows", "countByBookIdAndReturnedFalse",
+                () -> borrowRepository.countByBookIdAndReturnedFalse(bookId));
+        check(failures, "borrows", "findByReturnedFalseAndDueDateBefore",
+                () -> borrowRepository.findByReturnedFalseAndDueDateBefore(today));
+        check(failures, "borrows", "findOverdueSummaries",
+                () -> borrowRepository.findOverdueSummaries(today));
+        check(failures, "borrows", "findSummariesByUserId",
+                () -> borrowRepository.findSummariesByUserId(userId));
+        check(failures, "borrows", "findSummariesByUserEmail",
+                () -> borrowRepository.findSummariesByUserEmail(email));
+        check(failures, "borrows", "findArchivableIds",
+                () -> borrowRepository.findArchivableIds(today.minusDays(700), PageRequest.of(0, 500)));
+
+        // BorrowArchiveRepository
+        check(failures, "borrows_archive", "findSummariesByUserId (archive)",
+                () -> borrowArchiveRepository.findSummariesByUserId(userId));
+
+        // UserRepository
+        check(failures, "users", "findByEmail", () -> userRepository.findByEmail(email));
+
+        // AuthorRepository
+        check(failures, "authors", "findByNameIgnoreCase",
+                () -> authorRepository.findByNameIgnoreCase("seed author 42"));
+
+        // BookRepository
+        check(failures, "book", "findByTitleContainingIgnoreCase",
+                () -> bookRepository.findByTitleContainingIgnoreCase(titleTerm, PageRequest.of(0, 20)));
+        check(failures, "book", "findByIsbnContainingIgnoreCase",
+                () -> bookRepository.findByIsbnContainingIgnoreCase(isbnTerm, PageRequest.of(0, 20)));
+        check(failures, "authors", "findByAuthor_NameContainingIgnoreCase",
+                () -> bookRepository.findByAuthor_NameContainingIgnoreCase(nameTerm, PageRequest.of(0, 20)));
+
+        // IdempotencyRecordRepository, GamificationEventRepository
+        check(failures, "idempotency_records", "deleteAllExpired",
+                () -> idempotencyRecordRepository.deleteAllExpired(today.minusDays(1).atStartOfDay()));
+        check(failures, "gamification_events", "findByUserIdOrderByCreatedDateAsc",
+                () -> gamificationEventRepository.findByUserIdOrderByCreatedDateAsc(userId, PageRequest.of(0, 100)));
+
+        assertTrue(failures.isEmpty(), String.join("\n\n", failures));
+    }
+
+    /**
+     * Calls the repository method in a transaction that is rolled back, then runs EXPLAIN on every statement
+     * it sent, with the parameters it bound.
+     */
+
+    private void check(List<String> failures, String table, String method, Runnable call) {
+        QueryStats stats = QueryStatsHolder.current();
+        stats.startCapture();
+        List<QueryStats.CapturedStatement> statements;
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                call.run();
+                status.setRollbackOnly();
+            });
+        } finally {
+            statements = stats.stopCapture();
+        }
+        if (statements.isEmpty()) {
+            failures.add(method + " sent no statement");
+        }
+        for (QueryStats.CapturedStatement statement : statements) {
+            String plan = String.join("\n", jdbcTemplate.queryForList("explain " + statement.sql(), String.class,
+                    statement.parameters().toArray()));
+            if (plan.contains("Seq Scan on " + table + " ")) {
+                failures.add(method + " scans " + table + " sequentially:\n" + statement.sql() + "\n" + plan);
+            }
+        }
+    }
+
+    /**
+     * A "containing" search term: ten characters from the middle of the md5 used in the seeded value.
+     */
+
+    private String searchTerm(String kind, int n) {
+        String hash = jdbcTemplate.queryForObject("select md5(? || ?)", String.class, kind, n);
+        return hash.substring(8, 18);
+    }
+
+    private UUID seedId(String kind, int n) {
+        return jdbcTemplate.queryForObject("select md5(? || ?)::uuid", UUID.class, kind, n);
+    }
+
+    /**
+     * 50 000 authors and books, 5 000 users, 100 000 borrows (1 in 500 still active),
+     * 20 000 archived borrows, 20 000 idempotency records and 5 000 gamification events.
+     */
+
+    private void seed() {
+        jdbcTemplate.execute("""
+                insert into authors (id, name, created_at)
+                select md5('author' || n)::uuid, 'Seed Author ' || n || ' ' || md5('name' || n), now()
+                from generate_series(1, 50000) n""");
+        jdbcTemplate.execute("""
+                insert into book (id, title, isbn, author_id, published_date, genre, page_count, count, is_available, created_at)
+                select md5('book' || n)::uuid, 'Seed Title ' || md5('title' || n), md5('isbn' || n),
+                       md5('author' || n)::uuid, date '2000-01-01', 'SCIENCE', 200, 3, true, now()
+                from generate_series(1, 50000) n""");
+        jdbcTemplate.execute("""
+                insert into users (id, full_name, email, password, role, level, score, deleted,
+                                   total_borrowed_books, total_returned_books, total_late_returns, total_read_pages,
+                                   total_reading_days, streak_timely_returns, active_borrow_count, active_borrow_days, created_at)
+                select md5('user' || n)::uuid, 'Seed Patron ' || n, 'seed' || n || '@libris.test', 'password',
+                       'PATRON', 'NOVICE', 0, false, 0, 0, 0, 0, 0, 0, 0, 0, now()
+                from generate_series(1, 5000) n""");
+        jdbcTemplate.execute("""
+                insert into borrows (id, book_id, user_id, borrow_date, due_date, return_date, returned, created_at)
+                select gen_random_uuid(), md5('book' || (n % 50000 + 1))::uuid, md5('user' || (n % 5000 + 1))::uuid,
+                       current_date - (n % 700), current_date - (n % 700) + 14,
+                       case when n % 500 = 0 then null else current_date - (n % 700) + 7 end,
+                       n % 500 <> 0, now()
+                from generate_series(1, 100000) n""");
+        jdbcTemplate.execute("""
+                insert into borrows_archive (id, book_id, user_id, borrow_date, due_date, return_date, returned, archived_at, created_at)
+                select gen_random_uuid(), md5('book' || (n % 50000 + 1))::uuid, md5('user' || (n % 5000 + 1))::uuid,
+                       date '2020-01-01', date '2020-01-15', date '2020-01-08', true, now(), now()
+                from generate_series(1, 20000) n""");
+        jdbcTemplate.execute("""
+                insert into idempotency_records (id, principal, idempotency_key, operation, request_hash, expires_at, created_at)
+                select gen_random_uuid(), 'seed' || (n % 5000) || '@libris.test', 'key-' || n, 'borrow', md5(n::text),
+                       now() + interval '1 day', now()
+                from generate_series(1, 20000) n""");
+        jdbcTemplate.execute("""
+                insert into gamification_events (id, user_id, borrow_id, borrow_date, due_date, return_date, page_count, created_at)
+                select gen_random_uuid(), md5('user' || (n % 5000 + 1))::uuid, gen_random_uuid(),
+                       current_date - 10, current_date + 4, current_date, 200, now()
+                from generate_series(1, 5000) n""");
+        jdbcTemplate.execute("analyze");
+    }
+}
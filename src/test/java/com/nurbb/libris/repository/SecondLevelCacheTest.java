@@ -0,0 +1,151 @@
+package com.nurbb.libris.repository;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nurbb.libris.model.dto.request.BookRequest;
+import com.nurbb.libris.model.entity.Author;
+import com.nurbb.libris.model.entity.Book;
+import com.nurbb.libris.model.entity.valueobject.Genre;
+import com.nurbb.libris.monitoring.QueryStatsResponseAdvice;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDate;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Book and Author reads served from the Hibernate second-level cache.
+ */
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class SecondLevelCacheTest {
+
+    @Autowired private MockMvc mockMvc;
+    @Autowired private ObjectMapper objectMapper;
+    @Autowired private AuthorRepository authorRepository;
+    @Autowired private BookRepository bookRepository;
+    @Autowired private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+    private Author author;
+    private Book book;
+
+    @BeforeEach
+    void setUp() {
+        author = new Author();
+        author.setName("Second Level Author " + UUID.randomUUID());
+        author = authorRepository.save(author);
+
+        book = new Book();
+        book.setTitle("Second Level Book");
+        book.setIsbn(UUID.randomUUID().toString().substring(0, 13));
+        book.setAuthor(author);
+        book.setPageCount(100);
+        book.setGenre(Genre.SCIENCE);
+        book.setCount(3);
+        book.setAvailable(true);
+        book.setPublishedDate(LocalDate.of(2021, 1, 1));
+        book = bookRepository.save(book);
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        statistics.clear();
+    }
+
+    @Test
+    @WithMockUser(roles = "LIBRARIAN")
+    void getBookById_shouldNotHitTheDatabaseOnceCached() throws Exception {
+        mockMvc.perform(get("/api/books/" + book.getId()))
+                .andExpect(status().isOk())
+                .andExpect(header().string(QueryStatsResponseAdvice.QUERY_COUNT_HEADER, "0"))
+                .andExpect(jsonPath("$.authorName").value(author.getName()));
+
+        assertTrue(statistics.getSecondLevelCacheHitCount() >= 2);
+    }
+
+    @Test
+    @WithMockUser(roles = "PATRON")
+    void getBooksByIds_shouldOnlyReadBooksMissingFromTheCache() throws Exception {
+        Book uncached = new Book();
+        uncached.setTitle("Second Level Book, uncached");
+        uncached.setIsbn(UUID.randomUUID().toString().substring(0, 13));
+        uncached.setAuthor(author);
+        uncached.setPageCount(200);
+        uncached.setGenre(Genre.SCIENCE);
+        uncached.setCount(1);
+        uncached.setAvailable(true);
+        uncached.setPublishedDate(LocalDate.of(2022, 1, 1));
+        uncached = bookRepository.save(uncached);
+        entityManagerFactory.getCache().evict(Book.class, uncached.getId());
+        statistics.clear();
+
+        mockMvc.perform(get("/api/books")
+                        .param("ids", uncached.getId() + "," + UUID.randomUUID() + "," + book.getId() + "," + uncached.getId()))
+                .andExpect(status().isOk())
+                .andExpect(header().string(QueryStatsResponseAdvice.QUERY_COUNT_HEADER, "1"))
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].title").value("Second Level Book, uncached"))
+                .andExpect(jsonPath("$[1].id").value(book.getId().toString()))
+                .andExpect(jsonPath("$[1].authorName").value(author.getName()));
+
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    @WithMockUser(roles = "PATRON")
+    void getBooksByIds_shouldRejectTooManyIds() throws Exception {
+        String ids = String.join(",", Stream.generate(() -> UUID.randomUUID().toString()).limit(101).toList());
+
+        mockMvc.perform(get("/api/books").param("ids", ids))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void findByExactName_shouldResolveAuthorFromNaturalIdCache() {
+        Author found = authorRepository.findByExactName(author.getName()).orElseThrow();
+
+        assertEquals(author.getId(), found.getId());
+        assertEquals(1, statistics.getNaturalIdCacheHitCount());
+        assertEquals(0, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    @WithMockUser(roles = "LIBRARIAN")
+    void updateBook_shouldRefreshCachedEntity() throws Exception {
+        BookRequest request = new BookRequest();
+        request.setTitle("Second Level Book (2nd ed.)");
+        request.setAuthorName(author.getName());
+        request.setIsbn(UUID.randomUUID().toString().substring(0, 13));
+        request.setPublishedDate(book.getPublishedDate());
+        request.setGenre(Genre.SCIENCE);
+        request.setPageCount(120);
+        request.setCount(3);
+
+        mockMvc.perform(put("/api/books/" + book.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/books/" + book.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.title").value("Second Level Book (2nd ed.)"))
+                .andExpect(jsonPath("$.isbn").value(request.getIsbn()));
+    }
+}
@@ -0,0 +1,83 @@
+package com.nurbb.libris.repository;
+
+import com.nurbb.libris.model.entity.Author;
+import com.nurbb.libris.model.entity.Book;
+import com.nurbb.libris.model.entity.Borrow;
+import com.nurbb.libris.model.entity.User;
+import com.nurbb.libris.model.entity.valueobject.Genre;
+import com.nurbb.libris.model.entity.valueobject.Role;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class UserRepositoryLedgerTest {
+
+    @Autowired private UserRepository userRepository;
+    @Autowired private BookRepository bookRepository;
+    @Autowired private AuthorRepository authorRepository;
+    @Autowired private BorrowRepository borrowRepository;
+    @Autowired private TransactionTemplate transactionTemplate;
+
+    @Test
+    void reconcileActiveBorrowLedger_shouldCountOnlyUnreturnedBorrows() {
+        Author author = new Author();
+        author.setName("Ledger Author " + UUID.randomUUID());
+        author = authorRepository.save(author);
+
+        User user = new User();
+        user.setEmail("ledger_" + UUID.randomUUID() + "@libris.com");
+        user.setPassword("password");
+        user.setRole(Role.PATRON);
+        user.setFullName("Ledger Patron");
+        user = userRepository.save(user);
+
+        LocalDate today = LocalDate.now();
+        borrow(book(author), user, today, today.plusDays(7), false);
+        borrow(book(author), user, today.minusDays(2), today.plusDays(3), false);
+        borrow(book(author), user, today.minusDays(20), today.minusDays(6), true);
+
+        int updated = transactionTemplate.execute(status -> userRepository.reconcileActiveBorrowLedger());
+
+        User reconciled = userRepository.findById(user.getId()).orElseThrow();
+        assertTrue(updated >= 1);
+        assertEquals(2, reconciled.getActiveBorrowCount());
+        assertEquals(12, reconciled.getActiveBorrowDays());
+
+        int secondRun = transactionTemplate.execute(status -> userRepository.reconcileActiveBorrowLedger());
+        assertEquals(0, secondRun);
+    }
+
+    private Book book(Author author) {
+        Book book = new Book();
+        book.setTitle("Ledger Book");
+        book.setIsbn(UUID.randomUUID().toString().substring(0, 13));
+        book.setAuthor(author);
+        book.setPageCount(100);
+        book.setGenre(Genre.SCIENCE);
+        book.setCount(3);
+        book.setAvailable(true);
+        book.setPublishedDate(LocalDate.of(2021, 1, 1));
+        return bookRepository.save(book);
+    }
+
+    private void borrow(Book book, User user, LocalDate borrowDate, LocalDate dueDate, boolean returned) {
+        borrowRepository.save(Borrow.builder()
+                .book(book)
+                .user(user)
+                .borrowDate(borrowDate)
+                .dueDate(dueDate)
+                .returned(returned)
+                .build());
+    }
+}
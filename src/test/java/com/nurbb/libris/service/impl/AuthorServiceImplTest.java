@@ -1,9 +1,13 @@
 package com.nurbb.libris.service.impl;
 
+import com.nurbb.libris.cache.CatalogVersion;
 import com.nurbb.libris.exception.InvalidRequestException;
 import com.nurbb.libris.exception.NotFoundException;
+import com.nurbb.libris.model.dto.response.AuthorResponse;
 import com.nurbb.libris.model.entity.Author;
 import com.nurbb.libris.model.entity.Book;
+import com.nurbb.libris.model.mapper.AuthorMapper;
+import com.nurbb.libris.model.mapper.AuthorMapperImpl;
 import com.nurbb.libris.repository.AuthorRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -25,6 +29,12 @@ class AuthorServiceImplTest {
     @Mock
     private AuthorRepository authorRepository;
 
+    @Mock
+    private CatalogVersion catalogVersion;
+
+    @Spy
+    private AuthorMapper authorMapper = new AuthorMapperImpl();
+
     private UUID authorId;
     private Author author;
 
@@ -60,9 +70,9 @@ class AuthorServiceImplTest {
 
     @Test
     void getAllAuthors_shouldReturnList() {
-        when(authorRepository.findAll()).thenReturn(List.of(author));
+        when(authorRepository.findAllWithBooks()).thenReturn(List.of(author));
 
-        List<Author> result = authorService.getAllAuthors();
+        List<AuthorResponse> result = authorService.getAllAuthors();
 
         assertEquals(1, result.size());
         assertEquals("Jane Austen", result.get(0).getName());
@@ -70,9 +80,9 @@ class AuthorServiceImplTest {
 
     @Test
     void getAuthorById_shouldReturnOptional() {
-        when(authorRepository.findById(authorId)).thenReturn(Optional.of(author));
+        when(authorRepository.findWithBooksById(authorId)).thenReturn(Optional.of(author));
 
-        Optional<Author> result = authorService.getAuthorById(authorId);
+        Optional<AuthorResponse> result = authorService.getAuthorById(authorId);
 
         assertTrue(result.isPresent());
         assertEquals(authorId, result.get().getId());
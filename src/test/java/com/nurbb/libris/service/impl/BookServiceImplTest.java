@@ -1,5 +1,6 @@
 package com.nurbb.libris.service.impl;
 
+import com.nurbb.libris.cache.CatalogVersion;
 import com.nurbb.libris.exception.InvalidRequestException;
 import com.nurbb.libris.exception.NotFoundException;
 import com.nurbb.libris.model.dto.request.BookRequest;
@@ -25,6 +26,7 @@ import org.springframework.data.domain.PageImpl;
 
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -40,6 +42,7 @@ class BookServiceImplTest {
     @Mock private BookMapper bookMapper;
     @Mock private BookAvailabilityPublisher availabilityPublisher;
     @Mock private BorrowRepository borrowRepository;
+    @Mock private CatalogVersion catalogVersion;
 
     @InjectMocks
     private BookServiceImpl bookService;
@@ -299,6 +302,21 @@ class BookServiceImplTest {
         verify(bookRepository).findAll();
     }
 
+    @Test
+    void shouldQueryRequestedFieldsInResponseOrder() {
+        List<Map<String, Object>> rows = List.of(Map.of("id", bookId, "title", "Test Book"));
+        when(bookRepository.findAllFields(List.of("id", "title", "available"))).thenReturn(rows);
+
+        assertEquals(rows, bookService.getAllBooks(List.of("isAvailable", "title", "id", "title")));
+    }
+
+    @Test
+    void shouldRejectUnknownFieldsBeforeQuerying() {
+        assertThrows(InvalidRequestException.class, () -> bookService.getAllBooks(List.of("title", "author")));
+        assertThrows(InvalidRequestException.class, () -> bookService.getAllBooks(List.of()));
+        verify(bookRepository, never()).findAllFields(any());
+    }
+
     @Test
     void shouldReturnEmptyWhenNoSearchResults() {
         Page<Book> emptyPage = new PageImpl<>(List.of());
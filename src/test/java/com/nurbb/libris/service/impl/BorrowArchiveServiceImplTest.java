@@ -0,0 +1,105 @@
+package com.nurbb.libris.service.impl;
+
+import com.nurbb.libris.model.dto.projection.BorrowSummary;
+import com.nurbb.libris.model.entity.Author;
+import com.nurbb.libris.model.entity.Book;
+import com.nurbb.libris.model.entity.Borrow;
+import com.nurbb.libris.model.entity.User;
+import com.nurbb.libris.model.entity.valueobject.Genre;
+import com.nurbb.libris.model.entity.valueobject.Role;
+import com.nurbb.libris.repository.AuthorRepository;
+import com.nurbb.libris.repository.BookRepository;
+import com.nurbb.libris.repository.BorrowArchiveRepository;
+import com.nurbb.libris.repository.BorrowRepository;
+import com.nurbb.libris.repository.UserRepository;
+import com.nurbb.libris.service.BorrowArchiveService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class BorrowArchiveServiceImplTest {
+
+    private static final LocalDate CUTOFF = LocalDate.of(2002, 1, 1);
+
+    @Autowired private BorrowArchiveService borrowArchiveService;
+    @Autowired private BorrowArchiveRepository borrowArchiveRepository;
+    @Autowired private BorrowRepository borrowRepository;
+    @Autowired private UserRepository userRepository;
+    @Autowired private BookRepository bookRepository;
+    @Autowired private AuthorRepository authorRepository;
+
+    @Test
+    void archiveReturnedBefore_shouldMoveOnlyOldReturnedBorrows() {
+        User user = user();
+        Book book = book();
+
+        Borrow old = borrow(book, user, LocalDate.of(2001, 3, 1), LocalDate.of(2001, 3, 15), LocalDate.of(2001, 3, 10));
+        Borrow recent = borrow(book, user, CUTOFF, CUTOFF.plusDays(14), CUTOFF.plusDays(3));
+        Borrow active = borrow(book, user, LocalDate.of(2001, 5, 1), LocalDate.of(2001, 5, 15), null);
+
+        int archived = borrowArchiveService.archiveReturnedBefore(CUTOFF);
+
+        assertTrue(archived >= 1);
+        assertFalse(borrowRepository.existsById(old.getId()));
+        assertTrue(borrowRepository.existsById(recent.getId()));
+        assertTrue(borrowRepository.existsById(active.getId()));
+
+        List<BorrowSummary> archivedSummaries = borrowArchiveRepository.findSummariesByUserId(user.getId());
+        assertEquals(1, archivedSummaries.size());
+        BorrowSummary summary = archivedSummaries.get(0);
+        assertEquals(old.getId(), summary.id());
+        assertEquals("Archive Book", summary.bookTitle());
+        assertEquals(LocalDate.of(2001, 3, 10), summary.returnDate());
+        assertTrue(summary.returned());
+
+        assertEquals(0, borrowArchiveService.archiveReturnedBefore(CUTOFF));
+    }
+
+    private User user() {
+        User user = new User();
+        user.setEmail("archive_" + UUID.randomUUID() + "@libris.com");
+        user.setPassword("password");
+        user.setRole(Role.PATRON);
+        user.setFullName("Archive Patron");
+        return userRepository.save(user);
+    }
+
+    private Book book() {
+        Author author = new Author();
+        author.setName("Archive Author " + UUID.randomUUID());
+        author = authorRepository.save(author);
+
+        Book book = new Book();
+        book.setTitle("Archive Book");
+        book.setIsbn(UUID.randomUUID().toString().substring(0, 13));
+        book.setAuthor(author);
+        book.setPageCount(100);
+        book.setGenre(Genre.SCIENCE);
+        book.setCount(3);
+        book.setAvailable(true);
+        book.setPublishedDate(LocalDate.of(2000, 1, 1));
+        return bookRepository.save(book);
+    }
+
+    private Borrow borrow(Book book, User user, LocalDate borrowDate, LocalDate dueDate, LocalDate returnDate) {
+        return borrowRepository.save(Borrow.builder()
+                .book(book)
+                .user(user)
+                .borrowDate(borrowDate)
+                .dueDate(dueDate)
+                .returnDate(returnDate)
+                .returned(returnDate != null)
+                .build());
+    }
+}
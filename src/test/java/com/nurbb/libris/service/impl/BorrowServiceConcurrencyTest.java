@@ -0,0 +1,183 @@
+package com.nurbb.libris.service.impl;
+
+import com.nurbb.libris.exception.QuotasFullException;
+import com.nurbb.libris.model.dto.request.BorrowRequest;
+import com.nurbb.libris.model.entity.Author;
+import com.nurbb.libris.model.entity.Book;
+import com.nurbb.libris.model.entity.Borrow;
+import com.nurbb.libris.model.entity.User;
+import com.nurbb.libris.model.entity.valueobject.Genre;
+import com.nurbb.libris.model.entity.valueobject.Role;
+import com.nurbb.libris.repository.AuthorRepository;
+import com.nurbb.libris.repository.BookRepository;
+import com.nurbb.libris.repository.BorrowRepository;
+import com.nurbb.libris.repository.GamificationEventRepository;
+import com.nurbb.libris.repository.UserRepository;
+import com.nurbb.libris.service.BorrowService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Fires concurrent borrow/return calls for a single patron and checks that no score,
+ * ledger or quota update is lost, including the asynchronously applied return scoring.
+ */
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class BorrowServiceConcurrencyTest {
+
+    private static final int THREADS = 20;
+    private static final String LIBRARIAN_EMAIL = "admin@libris.com";
+
+    @Autowired private BorrowService borrowService;
+    @Autowired private UserRepository userRepository;
+    @Autowired private BookRepository bookRepository;
+    @Autowired private AuthorRepository authorRepository;
+    @Autowired private BorrowRepository borrowRepository;
+    @Autowired private GamificationEventRepository gamificationEventRepository;
+
+    private Author author;
+    private User patron;
+
+    @BeforeEach
+    void setUp() {
+        author = new Author();
+        author.setName("Concurrency Author " + UUID.randomUUID());
+        author = authorRepository.save(author);
+
+        patron = new User();
+        patron.setEmail("concurrency_" + UUID.randomUUID() + "@libris.com");
+        patron.setPassword("password");
+        patron.setRole(Role.PATRON);
+        patron.setFullName("Concurrency Patron");
+        patron = userRepository.save(patron);
+    }
+
+    @Test
+    void concurrentReturns_shouldNotLoseScoreOrLedgerUpdates() throws Exception {
+        LocalDate today = LocalDate.now();
+        List<UUID> borrowIds = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            borrowIds.add(borrowRepository.save(Borrow.builder()
+                    .book(book())
+                    .user(patron)
+                    .borrowDate(today)
+                    .dueDate(today.plusDays(10))
+                    .returned(false)
+                    .build()).getId());
+        }
+        patron.setActiveBorrowCount(THREADS);
+        patron.setActiveBorrowDays(THREADS * 10);
+        patron = userRepository.save(patron);
+
+        runConcurrently(borrowIds.stream()
+                .<Callable<Object>>map(id -> () -> borrowService.returnBook(id))
+                .toList());
+        awaitGamification();
+
+        User reloaded = userRepository.findById(patron.getId()).orElseThrow();
+        // Every return is early (+5 +2) and every fifth timely return adds a +10 streak bonus
+        assertEquals(THREADS * 7 + (THREADS / 5) * 10, reloaded.getScore());
+        assertEquals(THREADS, reloaded.getTotalReturnedBooks());
+        assertEquals(THREADS, reloaded.getStreakTimelyReturns());
+        assertEquals(0, reloaded.getActiveBorrowCount());
+        assertEquals(0, reloaded.getActiveBorrowDays());
+    }
+
+    @Test
+    void concurrentBorrows_shouldNotExceedQuota() throws Exception {
+        List<Callable<Object>> borrows = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            BorrowRequest request = new BorrowRequest();
+            request.setBookId(book().getId());
+            request.setEmail(patron.getEmail());
+            request.setBorrowDate(LocalDate.now());
+            borrows.add(() -> borrowService.borrowBook(request));
+        }
+
+        List<Throwable> failures = runConcurrently(borrows);
+
+        // NOVICE: 15 total days with a 5 day default period -> exactly three borrows fit
+        User reloaded = userRepository.findById(patron.getId()).orElseThrow();
+        assertEquals(THREADS - 3, failures.size());
+        assertTrue(failures.stream().allMatch(QuotasFullException.class::isInstance));
+        assertEquals(3, reloaded.getActiveBorrowCount());
+        assertEquals(15, reloaded.getActiveBorrowDays());
+        assertEquals(3, reloaded.getTotalBorrowedBooks());
+        assertEquals(3 + 1 + 1, reloaded.getScore());
+        assertEquals(3, borrowRepository.findSummariesByUserId(patron.getId()).size());
+    }
+
+    private void awaitGamification() throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 30_000;
+        while (gamificationEventRepository.count() > 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(50);
+        }
+        assertEquals(0, gamificationEventRepository.count());
+    }
+
+    private List<Throwable> runConcurrently(List<Callable<Object>> tasks) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(tasks.size());
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger completed = new AtomicInteger();
+        List<Future<Object>> futures = new ArrayList<>();
+        try {
+            for (Callable<Object> task : tasks) {
+                futures.add(executor.submit(() -> {
+                    SecurityContextHolder.getContext().setAuthentication(
+                            new TestingAuthenticationToken(LIBRARIAN_EMAIL, "", "ROLE_LIBRARIAN"));
+                    try {
+                        start.await();
+                        return task.call();
+                    } finally {
+                        completed.incrementAndGet();
+                        SecurityContextHolder.clearContext();
+                    }
+                }));
+            }
+            start.countDown();
+
+            List<Throwable> failures = new ArrayList<>();
+            for (Future<Object> future : futures) {
+                try {
+                    future.get(60, TimeUnit.SECONDS);
+                } catch (ExecutionException ex) {
+                    failures.add(ex.getCause());
+                }
+            }
+            assertEquals(tasks.size(), completed.get());
+            return failures;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private Book book() {
+        Book book = new Book();
+        book.setTitle("Concurrency Book");
+        book.setIsbn(UUID.randomUUID().toString().substring(0, 13));
+        book.setAuthor(author);
+        book.setPageCount(100);
+        book.setGenre(Genre.SCIENCE);
+        book.setCount(5);
+        book.setAvailable(true);
+        book.setPublishedDate(LocalDate.of(2021, 1, 1));
+        return bookRepository.save(book);
+    }
+}
@@ -1,5 +1,6 @@
 package com.nurbb.libris.service.impl;
 
+import com.nurbb.libris.cache.CatalogVersion;
 import com.nurbb.libris.exception.InvalidRequestException;
 import com.nurbb.libris.exception.QuotasFullException;
 import com.nurbb.libris.model.dto.request.BorrowRequest;
@@ -12,8 +13,11 @@ import com.nurbb.libris.model.entity.valueobject.Role;
 import com.nurbb.libris.model.mapper.BorrowMapper;
 import com.nurbb.libris.reactive.BookAvailabilityPublisher;
 import com.nurbb.libris.repository.BookRepository;
+import com.nurbb.libris.repository.BorrowArchiveRepository;
 import com.nurbb.libris.repository.BorrowRepository;
 import com.nurbb.libris.repository.UserRepository;
+import com.nurbb.libris.service.GamificationService;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -34,10 +38,13 @@ class BorrowServiceImplTest {
     private BorrowServiceImpl borrowService;
 
     @Mock private BorrowRepository borrowRepository;
+    @Mock private BorrowArchiveRepository borrowArchiveRepository;
     @Mock private BookRepository bookRepository;
     @Mock private UserRepository userRepository;
     @Mock private BorrowMapper borrowMapper;
     @Mock private BookAvailabilityPublisher availabilityPublisher;
+    @Mock private GamificationService gamificationService;
+    @Mock private CatalogVersion catalogVersion;
 
     private UUID userId;
     private UUID bookId;
@@ -73,39 +80,50 @@ class BorrowServiceImplTest {
         user.setTotalReadingDays(0);
         user.setTotalReadPages(0);
         user.setStreakTimelyReturns(0);
+
+        SecurityContextHolder.getContext().setAuthentication(
+                new TestingAuthenticationToken(user.getEmail(), "", "ROLE_PATRON")
+        );
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
     }
 
     @Test
     void borrowBook_shouldSucceed_whenValidRequest() {
         request.setDueDate(request.getBorrowDate().plusDays(7));
 
-        when(bookRepository.findById(bookId)).thenReturn(Optional.of(book));
-        when(userRepository.findByEmail(user.getEmail())).thenReturn(Optional.of(user));
+        when(bookRepository.findByIdForUpdate(bookId)).thenReturn(Optional.of(book));
+        when(userRepository.findByEmailForUpdate(user.getEmail())).thenReturn(Optional.of(user));
         when(borrowRepository.existsByBookAndUserAndReturnedFalse(book, user)).thenReturn(false);
-        when(borrowRepository.findByUser(user)).thenReturn(List.of());
         when(borrowRepository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
         when(borrowMapper.toResponse(any())).thenReturn(new BorrowResponse());
 
         BorrowResponse response = borrowService.borrowBook(request);
 
         assertNotNull(response);
-        verify(bookRepository).findById(bookId);
-        verify(userRepository).findByEmail(user.getEmail());
+        assertEquals(1, user.getActiveBorrowCount());
+        assertEquals(7, user.getActiveBorrowDays());
+        verify(bookRepository).findByIdForUpdate(bookId);
+        verify(userRepository).findByEmailForUpdate(user.getEmail());
         verify(borrowRepository).save(any());
     }
 
     @Test
     void borrowBook_shouldThrow_whenBookNotAvailable() {
         book.setAvailable(false);
-        when(bookRepository.findById(bookId)).thenReturn(Optional.of(book));
+        when(userRepository.findByEmailForUpdate(user.getEmail())).thenReturn(Optional.of(user));
+        when(bookRepository.findByIdForUpdate(bookId)).thenReturn(Optional.of(book));
 
         assertThrows(InvalidRequestException.class, () -> borrowService.borrowBook(request));
     }
 
     @Test
     void borrowBook_shouldThrow_whenAlreadyBorrowedAndNotReturned() {
-        when(bookRepository.findById(bookId)).thenReturn(Optional.of(book));
-        when(userRepository.findByEmail(user.getEmail())).thenReturn(Optional.of(user));
+        when(bookRepository.findByIdForUpdate(bookId)).thenReturn(Optional.of(book));
+        when(userRepository.findByEmailForUpdate(user.getEmail())).thenReturn(Optional.of(user));
         when(borrowRepository.existsByBookAndUserAndReturnedFalse(book, user)).thenReturn(true);
 
         assertThrows(InvalidRequestException.class, () -> borrowService.borrowBook(request));
@@ -114,19 +132,15 @@ class BorrowServiceImplTest {
     @Test
     void borrowBook_shouldThrow_whenBorrowLimitExceeded() {
         request.setDueDate(request.getBorrowDate().plusDays(30));
-        when(bookRepository.findById(bookId)).thenReturn(Optional.of(book));
-        when(userRepository.findByEmail(user.getEmail())).thenReturn(Optional.of(user));
+        when(bookRepository.findByIdForUpdate(bookId)).thenReturn(Optional.of(book));
+        when(userRepository.findByEmailForUpdate(user.getEmail())).thenReturn(Optional.of(user));
         when(borrowRepository.existsByBookAndUserAndReturnedFalse(book, user)).thenReturn(false);
 
-        Borrow activeBorrow = Borrow.builder()
-                .borrowDate(LocalDate.now().minusDays(5))
-                .dueDate(LocalDate.now().plusDays(10))
-                .returned(false)
-                .build();
-
-        when(borrowRepository.findByUser(user)).thenReturn(List.of(activeBorrow));
+        user.setActiveBorrowCount(1);
+        user.setActiveBorrowDays(15);
 
         assertThrows(QuotasFullException.class, () -> borrowService.borrowBook(request));
+        verify(borrowRepository, never()).findByUser(any());
     }
 
     @Test
@@ -140,12 +154,16 @@ class BorrowServiceImplTest {
         borrow.setReturned(false);
 
         user.setRole(Role.LIBRARIAN);
+        user.setActiveBorrowCount(1);
+        user.setActiveBorrowDays(11);
 
         SecurityContextHolder.getContext().setAuthentication(
                 new TestingAuthenticationToken(user.getEmail(), "", "ROLE_LIBRARIAN")
         );
 
-        when(borrowRepository.findById(borrow.getId())).thenReturn(Optional.of(borrow));
+        when(borrowRepository.findByIdForUpdate(borrow.getId())).thenReturn(Optional.of(borrow));
+        when(userRepository.findByIdForUpdate(userId)).thenReturn(Optional.of(user));
+        when(bookRepository.findByIdForUpdate(bookId)).thenReturn(Optional.of(book));
         when(userRepository.findByEmail(user.getEmail())).thenReturn(Optional.of(user));
         when(borrowMapper.toResponse(any())).thenReturn(new BorrowResponse());
 
@@ -153,6 +171,10 @@ class BorrowServiceImplTest {
 
         assertNotNull(response);
         assertTrue(borrow.getReturned());
+        assertEquals(0, user.getActiveBorrowCount());
+        assertEquals(0, user.getActiveBorrowDays());
+        verify(gamificationService).recordReturn(borrow);
+        assertEquals(10, user.getScore());
     }
 
     @Test
@@ -161,7 +183,7 @@ class BorrowServiceImplTest {
         borrow.setId(UUID.randomUUID());
         borrow.setReturned(true);
 
-        when(borrowRepository.findById(borrow.getId())).thenReturn(Optional.of(borrow));
+        when(borrowRepository.findByIdForUpdate(borrow.getId())).thenReturn(Optional.of(borrow));
 
         assertThrows(InvalidRequestException.class, () -> borrowService.returnBook(borrow.getId()));
     }
@@ -170,16 +192,14 @@ class BorrowServiceImplTest {
     void getBorrowHistoryByUser_shouldSucceed_forLibrarian() {
         user.setRole(Role.LIBRARIAN);
         UUID targetUserId = UUID.randomUUID();
-        User targetUser = new User();
-        targetUser.setId(targetUserId);
 
         SecurityContextHolder.getContext().setAuthentication(
                 new TestingAuthenticationToken(user.getEmail(), "", "ROLE_LIBRARIAN")
         );
 
         when(userRepository.findByEmail(user.getEmail())).thenReturn(Optional.of(user));
-        when(userRepository.findById(targetUserId)).thenReturn(Optional.of(targetUser));
-        when(borrowRepository.findByUser(targetUser)).thenReturn(List.of());
+        when(userRepository.existsById(targetUserId)).thenReturn(true);
+        when(borrowRepository.findSummariesByUserId(targetUserId)).thenReturn(List.of());
         List<BorrowResponse> list = borrowService.getBorrowHistoryByUser(targetUserId);
         assertNotNull(list);
     }
@@ -210,8 +230,8 @@ class BorrowServiceImplTest {
         );
 
 
-        lenient().when(userRepository.findByEmail(user.getEmail())).thenReturn(Optional.of(user));
-        lenient().when(bookRepository.findById(bookId)).thenReturn(Optional.of(book));
+        lenient().when(userRepository.findByEmailForUpdate(user.getEmail())).thenReturn(Optional.of(user));
+        lenient().when(bookRepository.findByIdForUpdate(bookId)).thenReturn(Optional.of(book));
 
         assertThrows(InvalidRequestException.class, () -> borrowService.borrowBook(request));
     }
@@ -226,10 +246,9 @@ class BorrowServiceImplTest {
                 new TestingAuthenticationToken(user.getEmail(), "", "ROLE_LIBRARIAN")
         );
 
-        when(userRepository.findByEmail(user.getEmail())).thenReturn(Optional.of(user));
-        when(bookRepository.findById(bookId)).thenReturn(Optional.of(book));
+        when(userRepository.findByEmailForUpdate(user.getEmail())).thenReturn(Optional.of(user));
+        when(bookRepository.findByIdForUpdate(bookId)).thenReturn(Optional.of(book));
         when(borrowRepository.existsByBookAndUserAndReturnedFalse(book, user)).thenReturn(false);
-        when(borrowRepository.findByUser(user)).thenReturn(List.of());
         when(borrowRepository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
         when(borrowMapper.toResponse(any())).thenReturn(new BorrowResponse());
 
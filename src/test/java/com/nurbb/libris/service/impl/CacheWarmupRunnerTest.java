@@ -0,0 +1,78 @@
+package com.nurbb.libris.service.impl;
+
+import com.nurbb.libris.cache.CatalogVersion;
+import com.nurbb.libris.service.AuthorService;
+import com.nurbb.libris.service.BookService;
+import com.nurbb.libris.service.StatisticsService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.availability.ApplicationAvailability;
+import org.springframework.boot.availability.ReadinessState;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.interceptor.SimpleKey;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "libris.cache-warmup.enabled=true")
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class CacheWarmupRunnerTest {
+
+    @Autowired private CacheManager cacheManager;
+    @Autowired private CatalogVersion catalogVersion;
+    @Autowired private ApplicationAvailability applicationAvailability;
+    @Autowired private MockMvc mockMvc;
+
+    @Test
+    void startup_shouldFillConfiguredCachesBeforeReportingReady() throws Exception {
+        for (String cache : List.of("bookList", "authorList")) {
+            assertNotNull(cacheManager.getCache(cache).get(catalogVersion.etag()), cache + " was not warmed");
+        }
+        for (String cache : List.of("libraryStatistics", "overdueStats")) {
+            assertNotNull(cacheManager.getCache(cache).get(SimpleKey.EMPTY), cache + " was not warmed");
+        }
+        assertEquals(ReadinessState.ACCEPTING_TRAFFIC, applicationAvailability.getReadinessState());
+        mockMvc.perform(get("/actuator/health/readiness"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("UP"));
+    }
+
+    @Test
+    void run_shouldTolerateFailingLoadersAndUnknownCaches() {
+        BookService bookService = mock(BookService.class);
+        AuthorService authorService = mock(AuthorService.class);
+        StatisticsService statisticsService = mock(StatisticsService.class);
+        when(statisticsService.getLibraryStatistics()).thenThrow(new IllegalStateException("database down"));
+
+        CacheWarmupRunner runner = new CacheWarmupRunner(bookService, authorService, statisticsService, true,
+                List.of("bookList", "libraryStatistics", "searchIndex"), Duration.ofSeconds(5));
+
+        assertDoesNotThrow(() -> runner.run(null));
+        verify(bookService).getAllBooks();
+        verify(statisticsService).getLibraryStatistics();
+        verifyNoInteractions(authorService);
+    }
+
+    @Test
+    void run_shouldDoNothingWhenDisabled() {
+        BookService bookService = mock(BookService.class);
+        AuthorService authorService = mock(AuthorService.class);
+        StatisticsService statisticsService = mock(StatisticsService.class);
+
+        new CacheWarmupRunner(bookService, authorService, statisticsService, false,
+                List.of("bookList"), Duration.ofSeconds(5)).run(null);
+
+        verifyNoInteractions(bookService, authorService, statisticsService);
+    }
+}
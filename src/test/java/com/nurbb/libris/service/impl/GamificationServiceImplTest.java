@@ -0,0 +1,187 @@
+package com.nurbb.libris.service.impl;
+
+import com.nurbb.libris.model.entity.GamificationEvent;
+import com.nurbb.libris.model.entity.User;
+import com.nurbb.libris.model.entity.valueobject.Level;
+import com.nurbb.libris.repository.GamificationEventRepository;
+import com.nurbb.libris.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(org.mockito.junit.jupiter.MockitoExtension.class)
+class GamificationServiceImplTest {
+
+    private static final int BATCH_SIZE = 5;
+    private static final LocalDate DUE = LocalDate.of(2025, 3, 20);
+
+    @Mock private GamificationEventRepository gamificationEventRepository;
+    @Mock private UserRepository userRepository;
+    @Mock private ApplicationEventPublisher eventPublisher;
+
+    private GamificationServiceImpl gamificationService;
+    private UUID userId;
+    private User user;
+    private List<GamificationEvent> outbox;
+
+    @BeforeEach
+    void setUp() {
+        gamificationService = new GamificationServiceImpl(gamificationEventRepository, userRepository, eventPublisher, BATCH_SIZE);
+        userId = UUID.randomUUID();
+
+        user = new User();
+        user.setId(userId);
+        user.setEmail("user@mail.com");
+        user.setScore(60);
+        user.setLevel(Level.READER);
+        outbox = new ArrayList<>();
+    }
+
+    /**
+     * Backs the outbox mocks with {@link #outbox}: reads return the oldest page, batch deletes remove the rows.
+     */
+
+    private void givenOutbox(GamificationEvent... events) {
+        outbox.addAll(List.of(events));
+        when(gamificationEventRepository.findByUserIdOrderByCreatedDateAsc(eq(userId), any(Pageable.class)))
+                .thenAnswer(invocation -> {
+                    Pageable page = invocation.getArgument(1);
+                    return new ArrayList<>(outbox.subList(0, Math.min(page.getPageSize(), outbox.size())));
+                });
+    }
+
+    private void givenDeletesApplyToOutbox() {
+        doAnswer(invocation -> {
+            outbox.removeAll(invocation.<List<GamificationEvent>>getArgument(0));
+            return null;
+        }).when(gamificationEventRepository).deleteAllInBatch(anyList());
+    }
+
+    private GamificationEvent returned(LocalDate returnDate) {
+        return GamificationEvent.builder()
+                .userId(userId)
+                .borrowId(UUID.randomUUID())
+                .borrowDate(DUE.minusDays(7))
+                .dueDate(DUE)
+                .returnDate(returnDate)
+                .pageCount(200)
+                .build();
+    }
+
+    @Test
+    void processPending_shouldPenaliseLateReturnsAndResetStreak() {
+        user.setStreakTimelyReturns(3);
+        when(userRepository.findByIdForUpdate(userId)).thenReturn(Optional.of(user));
+        givenOutbox(returned(DUE.plusDays(3)), returned(DUE.plusDays(10)));
+
+        assertEquals(2, gamificationService.processPending(userId));
+
+        assertEquals(60 - 3 - 6, user.getScore());
+        assertEquals(0, user.getStreakTimelyReturns());
+        assertEquals(2, user.getTotalLateReturns());
+        assertEquals(2, user.getTotalReturnedBooks());
+    }
+
+    @Test
+    void processPending_shouldAddEarlyBonusOnlyBeforeTheDayBeforeDue() {
+        when(userRepository.findByIdForUpdate(userId)).thenReturn(Optional.of(user));
+        givenOutbox(returned(DUE.minusDays(2)), returned(DUE.minusDays(1)), returned(DUE));
+
+        gamificationService.processPending(userId);
+
+        assertEquals(60 + 7 + 5 + 5, user.getScore());
+        assertEquals(3, user.getStreakTimelyReturns());
+        assertEquals(0, user.getTotalLateReturns());
+    }
+
+    @Test
+    void processPending_shouldAddBonusOnEveryFifthTimelyReturn() {
+        user.setStreakTimelyReturns(3);
+        when(userRepository.findByIdForUpdate(userId)).thenReturn(Optional.of(user));
+        givenOutbox(returned(DUE), returned(DUE), returned(DUE.plusDays(1)), returned(DUE));
+
+        gamificationService.processPending(userId);
+
+        // 4th timely, 5th timely (+10), late (streak back to 0), 1st timely again
+        assertEquals(60 + 5 + 15 - 3 + 5, user.getScore());
+        assertEquals(1, user.getStreakTimelyReturns());
+    }
+
+    @Test
+    void processPending_shouldRecalculateLevelAndReadingStatsOnce() {
+        user.setScore(45);
+        user.setLevel(Level.NOVICE);
+        user.setTotalReadingDays(4);
+        user.setTotalReadPages(100);
+        when(userRepository.findByIdForUpdate(userId)).thenReturn(Optional.of(user));
+        givenOutbox(returned(DUE.minusDays(2)));
+
+        gamificationService.processPending(userId);
+
+        assertEquals(52, user.getScore());
+        assertEquals(Level.READER, user.getLevel());
+        assertEquals(4 + 5, user.getTotalReadingDays());
+        assertEquals(100 + 200, user.getTotalReadPages());
+        verify(userRepository).save(user);
+    }
+
+    @Test
+    void processPending_shouldDropEventsOfDeletedUser() {
+        when(userRepository.findByIdForUpdate(userId)).thenReturn(Optional.empty());
+        givenOutbox(returned(DUE), returned(DUE));
+        givenDeletesApplyToOutbox();
+
+        assertEquals(2, gamificationService.processPending(userId));
+
+        assertTrue(outbox.isEmpty());
+        verify(userRepository, never()).save(any());
+    }
+
+    @Test
+    void processPending_shouldDoNothingWithoutPendingEvents() {
+        when(userRepository.findByIdForUpdate(userId)).thenReturn(Optional.of(user));
+        givenOutbox();
+
+        assertEquals(0, gamificationService.processPending(userId));
+
+        verify(userRepository, never()).save(any());
+        verify(gamificationEventRepository, never()).deleteAllInBatch(anyList());
+    }
+
+    @Test
+    void processPending_shouldApplyABurstOfReturnsInBatchSizedUserUpdates() {
+        when(userRepository.findByIdForUpdate(userId)).thenReturn(Optional.of(user));
+        givenOutbox(IntStream.range(0, 7).mapToObj(i -> returned(DUE)).toArray(GamificationEvent[]::new));
+        givenDeletesApplyToOutbox();
+
+        assertEquals(BATCH_SIZE, gamificationService.processPending(userId));
+        verify(userRepository, times(1)).save(user);
+        assertEquals(BATCH_SIZE, user.getTotalReturnedBooks());
+
+        assertEquals(2, gamificationService.processPending(userId));
+        assertEquals(0, gamificationService.processPending(userId));
+
+        verify(gamificationEventRepository, times(3))
+                .findByUserIdOrderByCreatedDateAsc(userId, PageRequest.of(0, BATCH_SIZE));
+        verify(userRepository, times(2)).save(user);
+        assertEquals(7, user.getTotalReturnedBooks());
+        assertEquals(60 + 7 * 5 + 10, user.getScore());
+    }
+}
@@ -0,0 +1,127 @@
+package com.nurbb.libris.service.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nurbb.libris.exception.InvalidRequestException;
+import com.nurbb.libris.model.dto.response.BorrowResponse;
+import com.nurbb.libris.model.entity.IdempotencyRecord;
+import com.nurbb.libris.repository.IdempotencyRecordRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class IdempotencyServiceImplTest {
+
+    @Mock private IdempotencyRecordRepository idempotencyRecordRepository;
+    @Mock private PlatformTransactionManager transactionManager;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+    private IdempotencyServiceImpl idempotencyService;
+    private AtomicInteger executions;
+
+    @BeforeEach
+    void setUp() {
+        idempotencyService = new IdempotencyServiceImpl(idempotencyRecordRepository, objectMapper,
+                transactionManager, Duration.ofHours(1), 100);
+        executions = new AtomicInteger();
+        SecurityContext context = SecurityContextHolder.createEmptyContext();
+        context.setAuthentication(new TestingAuthenticationToken("librarian@libris.com", "", "ROLE_LIBRARIAN"));
+        SecurityContextHolder.setContext(context);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void execute_shouldRunActionDirectly_whenNoKey() {
+        BorrowResponse response = idempotencyService.execute(null, "borrow", "request", BorrowResponse.class, this::borrow);
+
+        assertNotNull(response);
+        assertEquals(1, executions.get());
+        verifyNoInteractions(idempotencyRecordRepository);
+    }
+
+    @Test
+    void execute_shouldReplayFromMemory_withoutRunningActionAgain() {
+        when(idempotencyRecordRepository.findByPrincipalAndIdempotencyKey("librarian@libris.com", "key-1"))
+                .thenReturn(Optional.empty());
+        when(idempotencyRecordRepository.saveAndFlush(any())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        BorrowResponse first = idempotencyService.execute("key-1", "borrow", "request", BorrowResponse.class, this::borrow);
+        BorrowResponse replay = idempotencyService.execute("key-1", "borrow", "request", BorrowResponse.class, this::borrow);
+
+        assertEquals(first.getId(), replay.getId());
+        assertEquals(1, executions.get());
+        verify(idempotencyRecordRepository, times(1)).saveAndFlush(any());
+    }
+
+    @Test
+    void execute_shouldReplayFromDatabase_whenNotInMemory() {
+        IdempotencyRecord stored = storeThroughFreshInstance("key-2", "request");
+        when(idempotencyRecordRepository.findByPrincipalAndIdempotencyKey("librarian@libris.com", "key-2"))
+                .thenReturn(Optional.of(stored));
+        executions.set(0);
+
+        BorrowResponse replay = idempotencyService.execute("key-2", "borrow", "request", BorrowResponse.class, this::borrow);
+
+        assertEquals("Test Book", replay.getBookTitle());
+        assertEquals(0, executions.get());
+    }
+
+    @Test
+    void execute_shouldReject_whenKeyReusedForDifferentRequest() {
+        IdempotencyRecord stored = storeThroughFreshInstance("key-3", "request");
+        when(idempotencyRecordRepository.findByPrincipalAndIdempotencyKey("librarian@libris.com", "key-3"))
+                .thenReturn(Optional.of(stored));
+
+        assertThrows(InvalidRequestException.class, () ->
+                idempotencyService.execute("key-3", "borrow", "other-request", BorrowResponse.class, this::borrow));
+    }
+
+    private BorrowResponse borrow() {
+        executions.incrementAndGet();
+        BorrowResponse response = new BorrowResponse();
+        response.setId(UUID.randomUUID());
+        response.setBookTitle("Test Book");
+        response.setBorrowDate(LocalDate.now());
+        return response;
+    }
+
+    /**
+     * Runs a request through another instance (its own in-memory cache) and returns the record it persisted.
+     */
+
+    private IdempotencyRecord storeThroughFreshInstance(String key, Object request) {
+        IdempotencyRecordRepository otherRepository = mock(IdempotencyRecordRepository.class);
+        when(otherRepository.saveAndFlush(any())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        new IdempotencyServiceImpl(otherRepository, objectMapper, transactionManager, Duration.ofHours(1), 100)
+                .execute(key, "borrow", request, BorrowResponse.class, this::borrow);
+
+        ArgumentCaptor<IdempotencyRecord> saved = ArgumentCaptor.forClass(IdempotencyRecord.class);
+        verify(otherRepository).saveAndFlush(saved.capture());
+        assertTrue(saved.getValue().getExpiresAt().isAfter(LocalDateTime.now()));
+        return saved.getValue();
+    }
+}
@@ -1,11 +1,13 @@
 package com.nurbb.libris.service.impl;
 
 import com.nurbb.libris.model.dto.response.LibraryStatisticsResponse;
+import com.nurbb.libris.model.dto.response.SimpleCount;
 import com.nurbb.libris.model.entity.Book;
 import com.nurbb.libris.model.entity.Borrow;
 import com.nurbb.libris.model.entity.User;
 import com.nurbb.libris.model.entity.valueobject.Genre;
 import com.nurbb.libris.repository.BookRepository;
+import com.nurbb.libris.repository.BorrowArchiveRepository;
 import com.nurbb.libris.repository.BorrowRepository;
 import com.nurbb.libris.repository.UserRepository;
 import org.junit.jupiter.api.Test;
@@ -29,6 +31,7 @@ class StatisticsServiceImplTest {
 
     @Mock private BookRepository bookRepository;
     @Mock private BorrowRepository borrowRepository;
+    @Mock private BorrowArchiveRepository borrowArchiveRepository;
     @Mock private UserRepository userRepository;
 
     @Test
@@ -71,6 +74,28 @@ class StatisticsServiceImplTest {
         assertTrue(response.getTextReport().contains("LIBRARY STATISTICS REPORT"));
     }
 
+    @Test
+    void getLibraryStatistics_shouldIncludeArchivedBorrows() {
+        Borrow returnedBorrow = createBorrow("Book A", true, LocalDate.now().minusDays(10), LocalDate.now().minusDays(2));
+
+        when(bookRepository.findAll()).thenReturn(List.of(createBook("Book A", Genre.FANTASY, 2)));
+        when(borrowRepository.count()).thenReturn(1L);
+        when(borrowRepository.findAll()).thenReturn(List.of(returnedBorrow));
+        when(borrowArchiveRepository.count()).thenReturn(2L);
+        when(borrowArchiveRepository.sumReturnDays()).thenReturn(4L);
+        when(borrowArchiveRepository.countWithReturnDate()).thenReturn(2L);
+        when(borrowArchiveRepository.countByBookTitle()).thenReturn(List.of(
+                new SimpleCount("Book A", 1), new SimpleCount("Book Z", 1)));
+
+        LibraryStatisticsResponse response = statisticsService.getLibraryStatistics();
+
+        assertEquals(3, response.getTotalBorrows());
+        assertEquals(4.0, response.getAverageReturnDays()); // (8 + 4) / 3
+        assertEquals("Book A", response.getMostBorrowedBooks().get(0).getName());
+        assertEquals(2, response.getMostBorrowedBooks().get(0).getCount());
+        assertEquals(2, response.getMostBorrowedBooks().size());
+    }
+
     @Test
     void getOverdueBookStatistics_shouldReturnCorrectMap() {
         List<Borrow> borrows = new ArrayList<>();
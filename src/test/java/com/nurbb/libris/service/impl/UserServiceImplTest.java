@@ -15,6 +15,8 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.*;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.GrantedAuthority;
@@ -41,6 +43,7 @@ class UserServiceImplTest {
     @Mock private BorrowRepository borrowRepository;
     @Mock private UserMapper userMapper;
     @Mock private PasswordEncoder passwordEncoder;
+    @Mock private CacheManager cacheManager;
 
     private final UUID userId = UUID.randomUUID();
 
@@ -130,6 +133,33 @@ class UserServiceImplTest {
 
 
 
+    @Test
+    void getUsersByIds_shouldOnlyLoadIdsMissingFromCache() {
+        Authentication auth = mock(Authentication.class);
+        when(auth.getAuthorities()).thenAnswer(invocation -> List.of(new SimpleGrantedAuthority("ROLE_LIBRARIAN")));
+        SecurityContext context = mock(SecurityContext.class);
+        when(context.getAuthentication()).thenReturn(auth);
+        SecurityContextHolder.setContext(context);
+
+        UUID cachedId = UUID.randomUUID();
+        UserResponse cached = UserResponse.builder().id(cachedId).email("cached@mail.com").build();
+        ConcurrentMapCache cache = new ConcurrentMapCache("userById");
+        cache.put(cachedId, cached);
+        when(cacheManager.getCache("userById")).thenReturn(cache);
+
+        User user = new User();
+        user.setId(userId);
+        UserResponse loaded = UserResponse.builder().id(userId).email("loaded@mail.com").build();
+        when(userRepository.findAllById(List.of(userId))).thenReturn(List.of(user));
+        when(userMapper.toResponse(user)).thenReturn(loaded);
+
+        List<UserResponse> result = userService.getUsersByIds(List.of(userId, cachedId, userId));
+
+        assertEquals(List.of(loaded, cached), result);
+        assertEquals(loaded, cache.get(userId, UserResponse.class));
+        verify(userRepository).findAllById(List.of(userId));
+    }
+
     @Test
     void updateUser_shouldUpdateAndReturnUser() {
         UserRequest request = new UserRequest("Updated", "new@mail.com", "pass", "123", Role.PATRON);
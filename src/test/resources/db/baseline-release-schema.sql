@@ -0,0 +1,66 @@
+-- Schema and a few rows as left by the baseline release (Hibernate ddl-auto=update on PostgreSQL),
+-- without any Flyway history.
+
+create table authors (
+    id         uuid         not null primary key,
+    name       varchar(255) not null,
+    created_at timestamp(6) not null,
+    updated_at timestamp(6)
+);
+
+create table book (
+    id             uuid         not null primary key,
+    title          varchar(255) not null,
+    isbn           varchar(255) not null unique,
+    author_id      uuid         not null references authors (id),
+    published_date date         not null,
+    genre          varchar(255) not null check (genre in ('FICTION','NON_FICTION','SCIENCE','HISTORY','ROMANCE','FANTASY','BIOGRAPHY','MYSTERY','HORROR','ART','TECHNOLOGY','OTHER')),
+    page_count     integer      not null,
+    count          integer      not null,
+    is_available   boolean      not null,
+    created_at     timestamp(6) not null,
+    updated_at     timestamp(6)
+);
+
+create table users (
+    id                    uuid         not null primary key,
+    full_name             varchar(255) not null,
+    email                 varchar(255) not null unique,
+    password              varchar(255) not null,
+    phone                 varchar(255),
+    role                  varchar(255) not null check (role in ('GUEST','PATRON','LIBRARIAN')),
+    level                 varchar(255) check (level in ('NOVICE','READER','BOOKWORM','BIBLIOPHILE')),
+    score                 integer      not null,
+    deleted               boolean      not null,
+    total_borrowed_books  integer      not null,
+    total_returned_books  integer      not null,
+    total_late_returns    integer      not null,
+    total_read_pages      integer      not null,
+    total_reading_days    integer      not null,
+    streak_timely_returns integer      not null,
+    created_at            timestamp(6) not null,
+    updated_at            timestamp(6)
+);
+
+create table borrows (
+    id          uuid         not null primary key,
+    book_id     uuid references book (id),
+    user_id     uuid references users (id),
+    borrow_date date         not null,
+    due_date    date,
+    return_date date,
+    returned    boolean      not null,
+    created_at  timestamp(6) not null,
+    updated_at  timestamp(6)
+);
+
+insert into authors values ('00000000-0000-0000-0000-00000000a001', 'Baseline Author', now(), null);
+
+insert into book values ('00000000-0000-0000-0000-00000000b001', 'Baseline Book', '978-0000000001',
+        '00000000-0000-0000-0000-00000000a001', '2020-01-01', 'SCIENCE', 200, 2, true, now(), null);
+
+insert into users values ('00000000-0000-0000-0000-00000000c001', 'Baseline Patron', 'baseline@libris.test',
+        'secret', null, 'PATRON', 'NOVICE', 0, false, 1, 0, 0, 0, 0, 0, now(), null);
+
+insert into borrows values ('00000000-0000-0000-0000-00000000d001', '00000000-0000-0000-0000-00000000b001',
+        '00000000-0000-0000-0000-00000000c001', current_date - 3, current_date + 11, null, false, now(), null);